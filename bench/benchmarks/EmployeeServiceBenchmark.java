@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import models.Employee;
+import service.EmployeeService;
+
+/**
+ * Measures the query paths of EmployeeService against rosters of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Path dataFile;
+    private EmployeeService service;
+    private String[] probeIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataFile = RosterGenerator.writeTempRoster(size, 42, ".csv");
+        service = new EmployeeService(dataFile.toString());
+        Random random = new Random(7);
+        probeIds = new String[1024];
+        for (int i = 0; i < probeIds.length; i++) {
+            probeIds[i] = String.valueOf(1 + random.nextInt(size));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dataFile);
+    }
+
+    @Benchmark
+    public Optional<Employee> findEmployeeById() {
+        return service.findEmployeeById(probeIds[next++ & (probeIds.length - 1)]);
+    }
+
+    @Benchmark
+    public List<Employee> findEmployeesByName() {
+        return service.findEmployeesByName("shah 42");
+    }
+
+    @Benchmark
+    public double calculateSalaryMixed() {
+        // Managers, regular employees and interns are interleaved, so the call site stays megamorphic
+        double total = 0;
+        for (Employee emp : service.getEmployees()) {
+            total += emp.calculateSalary();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import models.Employee;
+import util.FileHandler;
+
+/**
+ * Measures loading and saving whole rosters through FileHandler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FileHandlerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({".csv", ".ems"})
+    public String format;
+
+    private Path source;
+    private Path target;
+    private List<Employee> roster;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        source = RosterGenerator.writeTempRoster(size, 42, format);
+        target = Files.createTempFile("roster-out-", format);
+        roster = FileHandler.readEmployees(source.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public List<Employee> readEmployees() throws IOException {
+        return FileHandler.readEmployees(source.toString());
+    }
+
+    @Benchmark
+    public void writeEmployees() throws IOException {
+        FileHandler.writeEmployees(roster, target.toString());
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import models.Employee;
+import service.ColumnarEmployeeStore;
+import util.FileHandler;
+
+/**
+ * Measures how much heap a loaded roster retains. Heap size is not something JMH reports,
+ * so this is a plain program: it loads a generated CSV roster, forces garbage collection
+ * and prints the retained bytes per employee, for the Employee list and for the columnar
+ * store built from it. It also counts distinct department instances by identity, which
+ * shows whether pooling in StringDictionary took effect.
+ * <p>
+ * Run with a fixed heap, e.g. {@code java -Xms4g -Xmx4g -cp ... benchmarks.HeapFootprint 1000000}.
+ */
+public final class HeapFootprint {
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = RosterGenerator.writeTempRoster(size, 42, ".csv");
+        try {
+            long baseline = usedHeap();
+            List<Employee> roster = FileHandler.readEmployees(file.toString());
+            long withRoster = usedHeap();
+            report("Employee list", roster.size(), withRoster - baseline);
+
+            Set<String> departments = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Employee emp : roster) {
+                departments.add(emp.getDepartment());
+            }
+            System.out.printf("Distinct department instances: %d%n", departments.size());
+
+            ColumnarEmployeeStore store = ColumnarEmployeeStore.of(roster);
+            long withStore = usedHeap();
+            report("Columnar store", store.size(), withStore - withRoster);
+
+            // Keep both alive until after the last measurement
+            System.out.printf("(checksum %.2f)%n", store.totalPayroll() + roster.size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void report(String label, int count, long bytes) {
+        System.out.printf("%-16s %,d employees, %,d bytes retained, %.1f bytes per employee%n",
+                label, count, bytes, count == 0 ? 0.0 : (double) bytes / count);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Repeat until the figure stops shrinking, since one System.gc() may not collect everything
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long now = runtime.totalMemory() - runtime.freeMemory();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
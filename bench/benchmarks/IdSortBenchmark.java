@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import models.Employee;
+
+/**
+ * Compares sorting by ID with the old comparator, which stripped non-digits with a regex
+ * on every comparison, against the precomputed numeric key that Employee now carries.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IdSortBenchmark {
+
+    private static final Comparator<Employee> REGEX_COMPARATOR =
+            Comparator.comparing(employee -> Integer.parseInt(employee.getId().replaceAll("\\D", "")));
+    private static final Comparator<Employee> KEY_COMPARATOR =
+            Comparator.comparingLong(Employee::getIdKey).thenComparing(Employee::getId);
+
+    @Param({"1000000"})
+    public int size;
+
+    private List<Employee> roster;
+    private List<Employee> work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        roster = RosterGenerator.generate(size, 42);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        work = new ArrayList<>(roster);
+    }
+
+    @Benchmark
+    public List<Employee> regexComparator() {
+        work.sort(REGEX_COMPARATOR);
+        return work;
+    }
+
+    @Benchmark
+    public List<Employee> precomputedKey() {
+        work.sort(KEY_COMPARATOR);
+        return work;
+    }
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import models.Employee;
+import models.Intern;
+import models.Manager;
+import models.RegularEmployee;
+import util.FileHandler;
+
+/**
+ * Generates synthetic rosters with a realistic mix of employee types, departments and
+ * ratings. A fixed seed keeps every benchmark run working on the same data.
+ */
+public final class RosterGenerator {
+    private static final String[] DEPARTMENTS = {"IT", "HR", "Finance", "Marketing", "Sales", "Operations", "Legal", "Support"};
+    private static final String[] RATINGS = {"1", "2", "3", "4", "5", "N/A"};
+    private static final String[] FIRST_NAMES = {"Shubik", "Binit", "Saurabh", "Prashid", "Saurav", "Anjali", "Priya",
+            "Deepak", "Sita", "Rajesh", "Emily", "James", "Olivia", "Ethan", "Mia", "Lucas", "Ava", "Henry"};
+    private static final String[] LAST_NAMES = {"Bhatt", "Shrestha", "Shah", "Bhusal", "Dangol", "Smith", "Garcia",
+            "Miller", "Brown", "Wilson", "Taylor", "Thapa", "Gurung", "Khadka", "Lee", "Martin"};
+
+    private RosterGenerator() {
+    }
+
+    /**
+     * Generates a roster of the given size: roughly 10% managers, 20% interns and the rest regular employees.
+     * @param size The number of employees
+     * @param seed The random seed
+     * @return The employees, with numeric IDs in random order
+     */
+    public static List<Employee> generate(int size, long seed) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(size);
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ids[i];
+            ids[i] = ids[j];
+            ids[j] = tmp;
+        }
+
+        for (int i = 0; i < size; i++) {
+            String id = String.valueOf(ids[i]);
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + random.nextInt(1000);
+            String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+            int kind = random.nextInt(10);
+            Employee emp;
+            if (kind == 0) {
+                emp = new Manager(id, name, department, 90000 + random.nextInt(60000), random.nextInt(20));
+            } else if (kind <= 2) {
+                emp = new Intern(id, name, department, 1500 + random.nextInt(500));
+            } else {
+                emp = new RegularEmployee(id, name, department, 50000 + random.nextInt(50000));
+            }
+            emp.setPerformanceRating(RATINGS[random.nextInt(RATINGS.length)]);
+            emp.setBonus(random.nextInt(5000));
+            emp.setFine(random.nextInt(10) == 0 ? random.nextInt(500) : 0);
+            employees.add(emp);
+        }
+        return employees;
+    }
+
+    /**
+     * Generates a roster and writes it to a temporary data file that is deleted on exit.
+     * @param size The number of employees
+     * @param seed The random seed
+     * @param extension The data file extension, ".csv" or ".ems"
+     * @return The path of the file
+     * @throws IOException If the file cannot be written
+     */
+    public static Path writeTempRoster(int size, long seed, String extension) throws IOException {
+        Path file = Files.createTempFile("roster-" + size + "-", extension);
+        file.toFile().deleteOnExit();
+        FileHandler.writeEmployees(generate(size, seed), file.toString());
+        return file;
+    }
+}
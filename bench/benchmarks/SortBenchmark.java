@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import service.EmployeeService;
+import service.EmployeeService.SortCriteria;
+
+/**
+ * Measures EmployeeService.sortEmployees for every sort criterion. Each invocation starts
+ * from a list ordered by a different criterion, so no run sorts an already sorted list.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"BY_ID", "BY_NAME", "BY_DEPARTMENT", "BY_SALARY", "BY_PERFORMANCE_RATING"})
+    public SortCriteria criteria;
+
+    private Path dataFile;
+    private EmployeeService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataFile = RosterGenerator.writeTempRoster(size, 42, ".csv");
+        service = new EmployeeService(dataFile.toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void scramble() {
+        service.sortEmployees(criteria == SortCriteria.BY_NAME ? SortCriteria.BY_SALARY : SortCriteria.BY_NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dataFile);
+    }
+
+    @Benchmark
+    public void sortEmployees() {
+        service.sortEmployees(criteria);
+    }
+}
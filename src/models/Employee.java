@@ -2,6 +2,7 @@ package models;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -9,25 +10,33 @@ import java.util.List;
  * It encapsulates common attributes and defines an abstract method for calculating salary,
  * demonstrating the concepts of abstraction and inheritance.
  */
-public abstract class Employee implements Serializable {
+public abstract class Employee implements Serializable, EmployeeView {
     private static final long serialVersionUID = 1L;
 
     private String name;
     private String id;
+    // Numeric form of the ID, parsed once so sorting by ID compares longs instead of re-parsing strings
+    private long idKey;
     private String department;
     private double baseSalary;
-    private String performanceRating;
+    private PerformanceRating performanceRating;
+    // Loaded from historySource on first access, or started on the first record if there is no source.
+    // Never modified: adding a record replaces it with a longer copy, so readers can share it
     private List<Performance> performanceHistory;
+    private transient PerformanceHistorySource historySource;
     private double bonus;
     private double fine;
+    // Salary cache: valid only while its stamp matches salaryStamp, which every salary-affecting setter bumps
+    private transient volatile CachedSalary cachedSalary;
+    private transient volatile int salaryStamp;
 
     public Employee(String id, String name, String department, double baseSalary) {
         this.id = id;
+        this.idKey = parseIdKey(id);
         this.name = name;
-        this.department = department;
+        this.department = StringDictionary.intern(department);
         this.baseSalary = baseSalary;
-        this.performanceRating = "N/A";
-        this.performanceHistory = new ArrayList<>();
+        this.performanceRating = PerformanceRating.NOT_RATED;
         this.bonus = 0.0;
         this.fine = 0.0;
     }
@@ -35,11 +44,53 @@ public abstract class Employee implements Serializable {
     // Getters
     public String getName() { return name; }
     public String getId() { return id; }
+    public long getIdKey() { return idKey; }
     public String getDepartment() { return department; }
     public double getBaseSalary() { return baseSalary; }
-    public String getPerformanceRating() { return performanceRating; }
-    public List<Performance> getPerformanceHistory() { 
-        return new ArrayList<>(performanceHistory); 
+    public PerformanceRating getPerformanceRating() { return performanceRating; }
+
+    /**
+     * Gets the performance history, oldest record first, loading it from the history
+     * source on first access.
+     * @return A read-only list of the history, unaffected by records added later
+     */
+    public synchronized List<Performance> getPerformanceHistory() {
+        if (performanceHistory == null) {
+            if (historySource == null) {
+                return Collections.emptyList();
+            }
+            performanceHistory = Collections.unmodifiableList(recorded(historySource.load(id)));
+        }
+        return performanceHistory;
+    }
+
+    /**
+     * Gets part of the performance history. If the history has not been loaded yet,
+     * only the requested page is read from the history source.
+     * @param offset The index of the first record
+     * @param limit The maximum number of records
+     * @return A read-only list of at most limit records, unaffected by records added later
+     */
+    public synchronized List<Performance> getPerformanceHistory(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        if (performanceHistory == null) {
+            if (historySource == null) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(recorded(historySource.loadPage(id, offset, limit)));
+        }
+        int from = Math.min(offset, performanceHistory.size());
+        int to = (int) Math.min((long) from + limit, performanceHistory.size());
+        return performanceHistory.subList(from, to);
+    }
+
+    public synchronized int getPerformanceRecordCount() {
+        if (performanceHistory == null) {
+            return historySource == null ? 0 : historySource.count(id);
+        }
+        return performanceHistory.size();
     }
     public double getBonus() { return bonus; }
     public double getFine() { return fine; }
@@ -50,7 +101,7 @@ public abstract class Employee implements Serializable {
     }
 
     public void setDepartment(String department) {
-        this.department = department;
+        this.department = StringDictionary.intern(department);
     }
 
     public void setBaseSalary(double baseSalary) {
@@ -58,14 +109,84 @@ public abstract class Employee implements Serializable {
             throw new IllegalArgumentException("Salary cannot be negative");
         }
         this.baseSalary = baseSalary;
+        invalidateSalary();
     }
 
-    public void setPerformanceRating(String performanceRating) {
+    public void setPerformanceRating(PerformanceRating performanceRating) {
+        if (performanceRating == null) {
+            throw new IllegalArgumentException("Performance rating cannot be null");
+        }
         this.performanceRating = performanceRating;
     }
 
-    public void addPerformanceRecord(Performance performance) {
-        performanceHistory.add(performance);
+    /**
+     * Sets the rating from text, accepting the forms PerformanceRating.parse accepts.
+     * @param performanceRating The rating, e.g. "4" or "Good"
+     */
+    public void setPerformanceRating(String performanceRating) {
+        setPerformanceRating(PerformanceRating.parse(performanceRating));
+    }
+
+    /**
+     * Adds a record to the performance history. With a history source attached, the
+     * record is written to the source straight away. The record cannot be changed afterwards.
+     * @param performance The record to add
+     */
+    public synchronized void addPerformanceRecord(Performance performance) {
+        performance.markRecorded();
+        if (historySource != null) {
+            historySource.append(id, performance);
+            if (performanceHistory != null) {
+                performanceHistory = appended(performanceHistory, performance);
+            }
+            return;
+        }
+        performanceHistory = appended(performanceHistory == null ? Collections.emptyList() : performanceHistory, performance);
+    }
+
+    /**
+     * Marks records read back from the history source as recorded.
+     * @return A new list holding the records
+     */
+    private static List<Performance> recorded(List<Performance> records) {
+        List<Performance> copy = new ArrayList<>(records.size());
+        for (Performance performance : records) {
+            performance.markRecorded();
+            copy.add(performance);
+        }
+        return copy;
+    }
+
+    /**
+     * Copies a history with one more record. Records are added far less often than the
+     * history is read, so copying here lets every read hand out the list itself.
+     */
+    private static List<Performance> appended(List<Performance> history, Performance performance) {
+        List<Performance> copy = new ArrayList<>(history.size() + 1);
+        copy.addAll(history);
+        copy.add(performance);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Attaches the store this employee's history is kept in. Records added before a
+     * source was attached are written to it, and the history is then read back lazily.
+     * @param source The history source
+     */
+    public synchronized void setPerformanceHistorySource(PerformanceHistorySource source) {
+        if (source == null) {
+            throw new IllegalArgumentException("History source cannot be null");
+        }
+        if (source == historySource) {
+            return;
+        }
+        if (historySource == null && performanceHistory != null) {
+            for (Performance performance : performanceHistory) {
+                source.append(id, performance);
+            }
+        }
+        historySource = source;
+        performanceHistory = null;
     }
 
     public void addBonus(double bonus) {
@@ -73,6 +194,7 @@ public abstract class Employee implements Serializable {
             throw new IllegalArgumentException("Bonus cannot be negative");
         }
         this.bonus += bonus;
+        invalidateSalary();
     }
 
     public void setBonus(double bonus) {
@@ -80,6 +202,7 @@ public abstract class Employee implements Serializable {
             throw new IllegalArgumentException("Bonus cannot be negative");
         }
         this.bonus = bonus;
+        invalidateSalary();
     }
 
     public void addFine(double fine) {
@@ -87,6 +210,7 @@ public abstract class Employee implements Serializable {
             throw new IllegalArgumentException("Fine cannot be negative");
         }
         this.fine += fine;
+        invalidateSalary();
     }
 
     public void setFine(double fine) {
@@ -94,6 +218,54 @@ public abstract class Employee implements Serializable {
             throw new IllegalArgumentException("Fine cannot be negative");
         }
         this.fine = fine;
+        invalidateSalary();
+    }
+
+    /**
+     * Sort key used for IDs with no digits, or with too many to fit in a long.
+     * Such IDs sort after all numeric ones.
+     */
+    public static final long NON_NUMERIC_ID_KEY = Long.MAX_VALUE;
+
+    /**
+     * Parses the numeric part of an ID by taking its digits in order, so "E012" becomes 12.
+     * @param id The employee ID
+     * @return The numeric key, or NON_NUMERIC_ID_KEY if the ID has no usable digits
+     */
+    public static long parseIdKey(String id) {
+        if (id == null) {
+            return NON_NUMERIC_ID_KEY;
+        }
+        long key = 0;
+        boolean hasDigits = false;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (key > (Long.MAX_VALUE - 1 - (c - '0')) / 10) {
+                    return NON_NUMERIC_ID_KEY; // Too long to be a number we can sort on
+                }
+                key = key * 10 + (c - '0');
+                hasDigits = true;
+            }
+        }
+        return hasDigits ? key : NON_NUMERIC_ID_KEY;
+    }
+
+    /**
+     * Gets the yearly salary, computing it only when a salary-affecting field has changed
+     * since the last call. Sorting and payroll totals can therefore call this freely.
+     * @return The calculated yearly salary including bonus and fine.
+     */
+    public double calculateSalary() {
+        CachedSalary cached = cachedSalary;
+        int stamp = salaryStamp;
+        if (cached != null && cached.stamp == stamp) {
+            return cached.value;
+        }
+        // The stamp is read before the fields, so a change made while computing leaves the result stale-stamped
+        double salary = computeSalary();
+        cachedSalary = new CachedSalary(salary, stamp);
+        return salary;
     }
 
     /**
@@ -102,7 +274,25 @@ public abstract class Employee implements Serializable {
      * demonstrating polymorphism.
      * @return The calculated yearly salary including bonus and fine.
      */
-    public abstract double calculateSalary();
+    protected abstract double computeSalary();
+
+    /**
+     * Discards the cached salary. Subclasses must call this from any setter of a field
+     * that computeSalary() reads.
+     */
+    protected void invalidateSalary() {
+        salaryStamp++;
+    }
+
+    private static final class CachedSalary {
+        private final double value;
+        private final int stamp;
+
+        CachedSalary(double value, int stamp) {
+            this.value = value;
+            this.stamp = stamp;
+        }
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,38 @@
+package models;
+
+/**
+ * Read-only access to the fields of an employee that reports and listings need.
+ * Every Employee is one; other implementations, such as the rows of a columnar store,
+ * can expose the same fields without being Employee objects.
+ */
+public interface EmployeeView {
+    String getId();
+    String getName();
+    String getDepartment();
+    double getBaseSalary();
+    PerformanceRating getPerformanceRating();
+    double getBonus();
+    double getFine();
+
+    /**
+     * Calculates the yearly salary.
+     * @return The yearly salary
+     */
+    double calculateSalary();
+
+    /**
+     * Gets the name of the kind of employee, such as "Manager".
+     * @return The simple class name of the employee type
+     */
+    default String getTypeName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Gets the number of subordinates managed.
+     * @return The count, which is 0 for anyone who is not a manager
+     */
+    default int getSubordinatesManaged() {
+        return 0;
+    }
+}
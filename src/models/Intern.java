@@ -12,7 +12,7 @@ public class Intern extends Employee {
     }
 
     @Override
-    public double calculateSalary() {
+    protected double computeSalary() {
         // Intern's yearly salary is their base salary plus any bonus, minus fines.
         return getBaseSalary() + getBonus() - getFine();
     }
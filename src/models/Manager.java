@@ -10,7 +10,7 @@ public class Manager extends Employee implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private int subordinatesManaged;
-    private static final double MANAGER_BONUS_PER_SUBORDINATE = 500.0;
+    public static final double MANAGER_BONUS_PER_SUBORDINATE = 500.0;
 
     public Manager(String id, String name, String department, double baseSalary, double bonus) {
         super(id, name, department, baseSalary);
@@ -23,7 +23,7 @@ public class Manager extends Employee implements Serializable {
     }
 
     @Override
-    public double calculateSalary() {
+    protected double computeSalary() {
         // Manager's yearly salary is their base salary plus a bonus per subordinate, 
         // plus any other performance bonuses, minus fines.
         return getBaseSalary() + 
@@ -32,6 +32,7 @@ public class Manager extends Employee implements Serializable {
                getFine();
     }
 
+    @Override
     public int getSubordinatesManaged() {
         return subordinatesManaged;
     }
@@ -41,6 +42,7 @@ public class Manager extends Employee implements Serializable {
             throw new IllegalArgumentException("Number of subordinates cannot be negative");
         }
         this.subordinatesManaged = subordinatesManaged;
+        invalidateSalary();
     }
     
     @Override
@@ -2,10 +2,15 @@ package models;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * A class to manage and track employee performance details.
- * It holds attributes like monthly rating and letter status.
+ * It holds attributes like monthly rating and letter status, and a dated entry for
+ * each action taken during the review. Once added to an employee's history a record is
+ * written to the history store and can no longer be changed, so the two never disagree.
  */
 public class Performance implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -17,7 +22,10 @@ public class Performance implements Serializable {
     private boolean hasBonus;
     private boolean hasFine;
     private LocalDate date;
-    private String comments;
+    // Actions taken during this review, oldest first; allocated on the first action
+    private List<PerformanceEvent> entries;
+    // Set when the record joins an employee's history
+    private boolean recorded;
 
     public Performance(String employeeId, String monthlyRating) {
         this.employeeId = employeeId;
@@ -27,7 +35,23 @@ public class Performance implements Serializable {
         this.hasBonus = false;
         this.hasFine = false;
         this.date = LocalDate.now();
-        this.comments = "";
+    }
+
+    /**
+     * Recreates a record with all of its fields, e.g. when reading it back from storage.
+     */
+    public Performance(String employeeId, String monthlyRating, LocalDate date, boolean hasWarningLetter,
+                       boolean hasAppreciationLetter, boolean hasBonus, boolean hasFine, List<PerformanceEvent> entries) {
+        this.employeeId = employeeId;
+        this.monthlyRating = monthlyRating;
+        this.hasWarningLetter = hasWarningLetter;
+        this.hasAppreciationLetter = hasAppreciationLetter;
+        this.hasBonus = hasBonus;
+        this.hasFine = hasFine;
+        this.date = date;
+        if (entries != null && !entries.isEmpty()) {
+            this.entries = new ArrayList<>(entries);
+        }
     }
     
     // Getters
@@ -38,38 +62,125 @@ public class Performance implements Serializable {
     public boolean hasBonus() { return hasBonus; }
     public boolean hasFine() { return hasFine; }
     public LocalDate getDate() { return date; }
-    public String getComments() { return comments; }
 
-    // Setters and action methods
+    /**
+     * Gets the actions taken during this review, oldest first.
+     * @return A read-only view of the entries
+     */
+    public List<PerformanceEvent> getEntries() {
+        return entries == null ? Collections.emptyList() : Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Finds the entries of one type dated within a range.
+     * @param type The action type, or null for all types
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching entries, oldest first
+     */
+    public List<PerformanceEvent> getEntries(PerformanceEvent.Type type, LocalDate from, LocalDate to) {
+        List<PerformanceEvent> result = new ArrayList<>();
+        if (entries == null) {
+            return result;
+        }
+        for (PerformanceEvent entry : entries) {
+            if ((type == null || entry.getType() == type)
+                    && (from == null || !entry.getDate().isBefore(from))
+                    && (to == null || !entry.getDate().isAfter(to))) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public List<PerformanceEvent> getWarnings(LocalDate from, LocalDate to) {
+        return getEntries(PerformanceEvent.Type.WARNING_LETTER, from, to);
+    }
+
+    /**
+     * Gets the entries as readable text, e.g. "[2024-05-01] Fine Applied: Late; ...".
+     * The text is built on each call, so prefer getEntries for anything but display.
+     * @return The comments, or an empty string if no action was taken
+     */
+    public String getComments() {
+        if (entries == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (PerformanceEvent entry : entries) {
+            if (sb.length() > 0) {
+                sb.append("; ");
+            }
+            sb.append('[').append(entry.getDate()).append("] ").append(describe(entry));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Tells whether the record is part of an employee's history and so can no longer change.
+     */
+    public boolean isRecorded() {
+        return recorded;
+    }
+
+    void markRecorded() {
+        recorded = true;
+    }
+
+    private void checkNotRecorded() {
+        if (recorded) {
+            throw new IllegalStateException("A recorded performance review cannot be changed; add a new record instead");
+        }
+    }
+
+    // Setters and action methods, which fail once the record is in a history
     public void setMonthlyRating(String monthlyRating) {
+        checkNotRecorded();
         this.monthlyRating = monthlyRating;
     }
 
     public void issueWarningLetter(String reason) {
+        checkNotRecorded();
         this.hasWarningLetter = true;
-        addComment("Warning Letter Issued: " + reason);
+        addEntry(PerformanceEvent.Type.WARNING_LETTER, reason);
     }
 
     public void issueAppreciationLetter(String reason) {
+        checkNotRecorded();
         this.hasAppreciationLetter = true;
-        addComment("Appreciation Letter Issued: " + reason);
+        addEntry(PerformanceEvent.Type.APPRECIATION_LETTER, reason);
     }
 
     public void awardBonus() {
+        checkNotRecorded();
         this.hasBonus = true;
-        addComment("Bonus Awarded");
+        addEntry(PerformanceEvent.Type.BONUS, "");
     }
 
     public void applyFine(String reason) {
+        checkNotRecorded();
         this.hasFine = true;
-        addComment("Fine Applied: " + reason);
+        addEntry(PerformanceEvent.Type.FINE, reason);
+    }
+
+    private void addEntry(PerformanceEvent.Type type, String reason) {
+        if (entries == null) {
+            entries = new ArrayList<>(4);
+        }
+        entries.add(new PerformanceEvent(employeeId, type, LocalDate.now(), 0, reason));
     }
 
-    private void addComment(String comment) {
-        if (!comments.isEmpty()) {
-            comments += "; ";
+    private static String describe(PerformanceEvent entry) {
+        switch (entry.getType()) {
+            case WARNING_LETTER:
+                return "Warning Letter Issued: " + entry.getReason();
+            case APPRECIATION_LETTER:
+                return "Appreciation Letter Issued: " + entry.getReason();
+            case BONUS:
+                return entry.getReason().isEmpty() ? "Bonus Awarded" : "Bonus Awarded: " + entry.getReason();
+            default:
+                return "Fine Applied: " + entry.getReason();
         }
-        comments += "[" + LocalDate.now() + "] " + comment;
     }
     
     @Override
@@ -77,4 +188,4 @@ public class Performance implements Serializable {
         return String.format("Performance Record [Date: %s, Rating: %s, Warnings: %b, Appreciations: %b, Bonus: %b, Fine: %b]",
                 date, monthlyRating, hasWarningLetter, hasAppreciationLetter, hasBonus, hasFine);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package models;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * A single performance action taken for an employee, such as a warning letter or a fine.
+ * Events are immutable and are kept in an append-only log, so an employee's record of
+ * actions survives restarts and can be queried by date.
+ */
+public final class PerformanceEvent implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Type {
+        WARNING_LETTER("Warning Letter"),
+        APPRECIATION_LETTER("Appreciation Letter"),
+        BONUS("Bonus"),
+        FINE("Fine");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private final String employeeId;
+    private final Type type;
+    private final LocalDate date;
+    private final double amount;
+    private final String reason;
+
+    public PerformanceEvent(String employeeId, Type type, LocalDate date, double amount, String reason) {
+        if (employeeId == null || type == null || date == null) {
+            throw new IllegalArgumentException("Employee ID, type and date are required");
+        }
+        if (amount < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        this.employeeId = employeeId;
+        this.type = type;
+        this.date = date;
+        this.amount = amount;
+        this.reason = reason == null ? "" : reason;
+    }
+
+    /**
+     * Creates an event dated today.
+     */
+    public PerformanceEvent(String employeeId, Type type, double amount, String reason) {
+        this(employeeId, type, LocalDate.now(), amount, reason);
+    }
+
+    // Getters
+    public String getEmployeeId() { return employeeId; }
+    public Type getType() { return type; }
+    public LocalDate getDate() { return date; }
+    public double getAmount() { return amount; }
+    public String getReason() { return reason; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append('[').append(date).append("] ").append(employeeId).append(": ").append(type.getLabel());
+        if (amount > 0) {
+            sb.append(String.format(" $%.2f", amount));
+        }
+        if (!reason.isEmpty()) {
+            sb.append(" - ").append(reason);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Where an employee's performance history is kept when it is not held in memory.
+ * An Employee with a source attached loads its history on first access, and can read
+ * a page of a long history without loading the rest.
+ */
+public interface PerformanceHistorySource {
+
+    /**
+     * Loads an employee's full history, oldest record first.
+     * @param employeeId The employee ID
+     * @return The records, or an empty list if there are none
+     */
+    List<Performance> load(String employeeId);
+
+    /**
+     * Loads part of an employee's history, oldest record first.
+     * @param employeeId The employee ID
+     * @param offset The index of the first record to return
+     * @param limit The maximum number of records to return
+     * @return The records, fewer than limit if the history ends first
+     */
+    List<Performance> loadPage(String employeeId, int offset, int limit);
+
+    /**
+     * Counts the records in an employee's history.
+     * @param employeeId The employee ID
+     * @return The number of records
+     */
+    int count(String employeeId);
+
+    /**
+     * Appends a record to an employee's history.
+     * @param employeeId The employee ID
+     * @param performance The record to append
+     */
+    void append(String employeeId, Performance performance);
+}
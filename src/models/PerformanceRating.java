@@ -0,0 +1,112 @@
+package models;
+
+import java.util.Locale;
+
+/**
+ * An employee's performance rating on a 1 to 5 scale, or NOT_RATED.
+ * Constants are declared in ascending order, so ordinal order is rating order.
+ * Ratings are written to files as their numeric code ("1" to "5", or "N/A"), and
+ * {@link #parse(String)} also accepts the word forms used in older data files.
+ * {@link #toString()} gives the label, for display.
+ */
+public enum PerformanceRating {
+    NOT_RATED(0, "Not Rated"),
+    POOR(1, "Poor"),
+    NEEDS_IMPROVEMENT(2, "Needs Improvement"),
+    AVERAGE(3, "Average"),
+    GOOD(4, "Good"),
+    OUTSTANDING(5, "Outstanding");
+
+    private static final String NOT_RATED_CODE = "N/A";
+
+    private final int score;
+    private final String label;
+
+    PerformanceRating(int score, String label) {
+        this.score = score;
+        this.label = label;
+    }
+
+    public int getScore() { return score; }
+    public String getLabel() { return label; }
+
+    /**
+     * Gets the form written to data files: the score, or "N/A" when not rated.
+     * @return The file code
+     */
+    public String getCode() {
+        return this == NOT_RATED ? NOT_RATED_CODE : String.valueOf(score);
+    }
+
+    /**
+     * Gets the rating for a score.
+     * @param score A score from 1 to 5, or 0 for not rated
+     * @return The rating
+     */
+    public static PerformanceRating fromScore(int score) {
+        for (PerformanceRating rating : values()) {
+            if (rating.score == score) {
+                return rating;
+            }
+        }
+        throw new IllegalArgumentException("Performance rating must be between 1 and 5: " + score);
+    }
+
+    /**
+     * Parses a rating from its numeric form ("4"), its word form ("Good", case-insensitive)
+     * or "N/A". An empty or missing value means not rated.
+     * @param text The text to parse
+     * @return The rating
+     */
+    public static PerformanceRating parse(String text) {
+        if (text == null) {
+            return NOT_RATED;
+        }
+        String value = text.trim();
+        if (value.isEmpty() || value.equalsIgnoreCase(NOT_RATED_CODE)) {
+            return NOT_RATED;
+        }
+        if (value.length() == 1 && value.charAt(0) >= '1' && value.charAt(0) <= '5') {
+            return fromScore(value.charAt(0) - '0');
+        }
+        String word = value.replace('_', ' ');
+        for (PerformanceRating rating : values()) {
+            if (rating.label.equalsIgnoreCase(word)) {
+                return rating;
+            }
+        }
+        switch (word.toLowerCase(Locale.ROOT)) {
+            case "excellent":
+                return OUTSTANDING;
+            case "below average":
+                return NEEDS_IMPROVEMENT;
+            default:
+                throw new IllegalArgumentException("Invalid performance rating: " + text);
+        }
+    }
+
+    /**
+     * Parses a rating read from a data file. Older files may hold free-form ratings such as
+     * "Good+"; rather than dropping the employee, anything {@link #parse(String)} rejects is
+     * reported and read as not rated. Interactive input should use parse, which rejects it.
+     * @param text The text to parse
+     * @return The rating, NOT_RATED if the text is not a recognized rating
+     */
+    public static PerformanceRating parseLenient(String text) {
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unrecognized performance rating \"" + text + "\", reading it as not rated");
+            return NOT_RATED;
+        }
+    }
+
+    /**
+     * Gets the label shown to users, e.g. "Outstanding". Files use {@link #getCode()}.
+     * @return The label
+     */
+    @Override
+    public String toString() {
+        return label;
+    }
+}
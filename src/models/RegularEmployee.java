@@ -17,7 +17,7 @@ public class RegularEmployee extends Employee {
     }
 
     @Override
-    public double calculateSalary() {
+    protected double computeSalary() {
         // Regular employee's yearly salary is their base salary plus performance bonus, minus fines.
         return getBaseSalary() + getBonus() - getFine();
     }
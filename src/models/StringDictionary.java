@@ -0,0 +1,45 @@
+package models;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A shared pool for low-cardinality values such as department names. Every equal value
+ * passed through {@link #intern(String)} comes back as the same instance, so a roster
+ * holds one copy of each department instead of one per employee, and pooled values can
+ * be compared by identity.
+ * <p>
+ * Values are never evicted, so only pool fields with a small set of distinct values.
+ */
+public final class StringDictionary {
+    private static final ConcurrentHashMap<String, String> VALUES = new ConcurrentHashMap<>();
+
+    private StringDictionary() {
+    }
+
+    /**
+     * Gets the pooled instance of a value, adding it if it is new.
+     * @param value The value, may be null
+     * @return The pooled instance, or null if the value is null
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = VALUES.putIfAbsent(value, value);
+        return existing == null ? value : existing;
+    }
+
+    /**
+     * Gets the pooled instance of a value without adding it, for lookups with values
+     * that should not grow the pool, such as search input.
+     * @param value The value, may be null
+     * @return The pooled instance, or null if the value has never been interned
+     */
+    public static String lookup(String value) {
+        return value == null ? null : VALUES.get(value);
+    }
+
+    public static int size() {
+        return VALUES.size();
+    }
+}
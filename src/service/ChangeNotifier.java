@@ -0,0 +1,133 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues roster changes and delivers them to listeners on a single background thread.
+ * A delivery waits a few milliseconds after the first change it picks up, so a burst of
+ * changes, such as a loop of edits, reaches listeners as one merged batch.
+ */
+final class ChangeNotifier {
+    // How long changes are collected before they are delivered
+    static final long COALESCE_MILLIS = 20;
+
+    private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private List<EmployeeChange> pending = new ArrayList<>();
+    private boolean deliveryScheduled;
+    private ScheduledExecutorService executor; // started with the first listener
+
+    synchronized void addListener(EmployeeChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "employee-change-notifier");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        listeners.add(listener);
+    }
+
+    void removeListener(EmployeeChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Queues a change for delivery. Cheap enough to call with the service's write lock held,
+     * which keeps changes in the order they were made.
+     */
+    void publish(EmployeeChange change) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pending.add(change);
+            if (!deliveryScheduled) {
+                deliveryScheduled = true;
+                executor.schedule(this::deliver, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void deliver() {
+        List<EmployeeChange> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new ArrayList<>();
+            deliveryScheduled = false;
+        }
+        List<EmployeeChange> changes = Collections.unmodifiableList(coalesce(batch));
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (EmployeeChangeListener listener : listeners) {
+            try {
+                listener.employeesChanged(changes);
+            } catch (RuntimeException e) {
+                System.err.println("Error in employee change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Merges a batch of changes so each employee appears at most once, except when it was
+     * removed and a different employee added under the same ID, which stays a removal
+     * followed by an addition. A reload discards everything queued before it.
+     * @param changes The changes in the order they were made
+     * @return The merged changes, in the order of each employee's first change
+     */
+    static List<EmployeeChange> coalesce(List<EmployeeChange> changes) {
+        List<EmployeeChange> merged = new ArrayList<>(changes.size());
+        Map<String, Integer> lastChange = new HashMap<>();
+        for (EmployeeChange change : changes) {
+            if (change.getType() == EmployeeChange.Type.RELOADED) {
+                merged.clear();
+                lastChange.clear();
+                merged.add(change);
+                continue;
+            }
+            String id = change.getEmployeeId();
+            Integer slot = lastChange.get(id);
+            EmployeeChange.Type previous = slot == null ? null : merged.get(slot).getType();
+            switch (change.getType()) {
+                case UPDATED:
+                    if (previous == EmployeeChange.Type.ADDED) {
+                        merged.set(slot, EmployeeChange.added(change.getEmployee()));
+                        continue;
+                    }
+                    if (previous == EmployeeChange.Type.UPDATED) {
+                        merged.set(slot, change);
+                        continue;
+                    }
+                    break;
+                case REMOVED:
+                    if (previous == EmployeeChange.Type.ADDED) {
+                        merged.set(slot, null); // never seen by listeners
+                        lastChange.remove(id);
+                        continue;
+                    }
+                    if (previous == EmployeeChange.Type.UPDATED) {
+                        merged.set(slot, change);
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            lastChange.put(id, merged.size());
+            merged.add(change);
+        }
+        merged.removeIf(change -> change == null);
+        return merged;
+    }
+}
@@ -0,0 +1,397 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import models.Employee;
+import models.EmployeeView;
+import models.Intern;
+import models.Manager;
+import models.PerformanceRating;
+import models.RegularEmployee;
+
+/**
+ * A compact, column-oriented alternative to holding a list of Employee objects.
+ * Each field lives in its own primitive array indexed by row, ratings are stored by
+ * ordinal and departments as codes into a small dictionary, so a row costs a few dozen
+ * bytes plus its ID and name strings. Salary aggregations run as plain loops over
+ * the arrays without touching any objects.
+ * <p>
+ * Rows are read through {@link #view(int)}, a read-only EmployeeView whose getters go
+ * straight to the columns, changed through the column setters, or copied out into real
+ * Manager, RegularEmployee and Intern objects with {@link #materialize(int)} for code that
+ * needs an Employee. Performance history is not kept here. This class is not thread-safe.
+ */
+public class ColumnarEmployeeStore {
+    public static final byte TYPE_MANAGER = 1;
+    public static final byte TYPE_REGULAR = 2;
+    public static final byte TYPE_INTERN = 3;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final PerformanceRating[] RATINGS = PerformanceRating.values();
+
+    private int size;
+    private String[] ids;
+    private String[] names;
+    private double[] baseSalaries;
+    private double[] bonuses;
+    private double[] fines;
+    private int[] subordinates;
+    private byte[] types;
+    private int[] departmentCodes;
+    private byte[] ratings;
+
+    private final Dictionary departments = new Dictionary();
+
+    public ColumnarEmployeeStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarEmployeeStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity cannot be negative");
+        }
+        int capacity = Math.max(initialCapacity, 1);
+        ids = new String[capacity];
+        names = new String[capacity];
+        baseSalaries = new double[capacity];
+        bonuses = new double[capacity];
+        fines = new double[capacity];
+        subordinates = new int[capacity];
+        types = new byte[capacity];
+        departmentCodes = new int[capacity];
+        ratings = new byte[capacity];
+    }
+
+    /**
+     * Copies a list of employees into a new store, in list order.
+     * @param employees The employees to copy
+     * @return The store
+     */
+    public static ColumnarEmployeeStore of(List<Employee> employees) {
+        ColumnarEmployeeStore store = new ColumnarEmployeeStore(employees.size());
+        for (Employee emp : employees) {
+            store.add(emp);
+        }
+        return store;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a copy of an employee's fields as a new row.
+     * @param employee The employee to copy
+     * @return The row index of the new row
+     */
+    public int add(Employee employee) {
+        byte type = typeOf(employee);
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = employee.getId();
+        names[row] = employee.getName();
+        baseSalaries[row] = employee.getBaseSalary();
+        bonuses[row] = employee.getBonus();
+        fines[row] = employee.getFine();
+        subordinates[row] = type == TYPE_MANAGER ? ((Manager) employee).getSubordinatesManaged() : 0;
+        types[row] = type;
+        departmentCodes[row] = departments.encode(employee.getDepartment());
+        ratings[row] = (byte) employee.getPerformanceRating().ordinal();
+        return row;
+    }
+
+    // Column accessors
+    public String getId(int row) { return ids[checkRow(row)]; }
+    public String getName(int row) { return names[checkRow(row)]; }
+    public String getDepartment(int row) { return departments.decode(departmentCodes[checkRow(row)]); }
+    public double getBaseSalary(int row) { return baseSalaries[checkRow(row)]; }
+    public double getBonus(int row) { return bonuses[checkRow(row)]; }
+    public double getFine(int row) { return fines[checkRow(row)]; }
+    public int getSubordinatesManaged(int row) { return subordinates[checkRow(row)]; }
+    public byte getType(int row) { return types[checkRow(row)]; }
+    public PerformanceRating getPerformanceRating(int row) { return RATINGS[ratings[checkRow(row)]]; }
+
+    // Column setters, which validate the same way Employee does
+    public void setName(int row, String name) {
+        names[checkRow(row)] = name;
+    }
+
+    public void setDepartment(int row, String department) {
+        departmentCodes[checkRow(row)] = departments.encode(department);
+    }
+
+    public void setBaseSalary(int row, double baseSalary) {
+        checkRow(row);
+        if (baseSalary < 0) {
+            throw new IllegalArgumentException("Salary cannot be negative");
+        }
+        baseSalaries[row] = baseSalary;
+    }
+
+    public void setPerformanceRating(int row, PerformanceRating performanceRating) {
+        checkRow(row);
+        if (performanceRating == null) {
+            throw new IllegalArgumentException("Performance rating cannot be null");
+        }
+        ratings[row] = (byte) performanceRating.ordinal();
+    }
+
+    public void setBonus(int row, double bonus) {
+        checkRow(row);
+        if (bonus < 0) {
+            throw new IllegalArgumentException("Bonus cannot be negative");
+        }
+        bonuses[row] = bonus;
+    }
+
+    public void setFine(int row, double fine) {
+        checkRow(row);
+        if (fine < 0) {
+            throw new IllegalArgumentException("Fine cannot be negative");
+        }
+        fines[row] = fine;
+    }
+
+    public void setSubordinatesManaged(int row, int subordinatesManaged) {
+        checkRow(row);
+        if (types[row] != TYPE_MANAGER) {
+            throw new IllegalArgumentException("Only managers have subordinates");
+        }
+        if (subordinatesManaged < 0) {
+            throw new IllegalArgumentException("Number of subordinates cannot be negative");
+        }
+        subordinates[row] = subordinatesManaged;
+    }
+
+    /**
+     * Calculates a row's yearly salary with the same rules as the Employee subclasses.
+     * @param row The row index
+     * @return The yearly salary
+     */
+    public double calculateSalary(int row) {
+        checkRow(row);
+        return salaryAt(row);
+    }
+
+    private double salaryAt(int row) {
+        double salary = baseSalaries[row] + bonuses[row] - fines[row];
+        if (types[row] == TYPE_MANAGER) {
+            salary += subordinates[row] * Manager.MANAGER_BONUS_PER_SUBORDINATE;
+        }
+        return salary;
+    }
+
+    public double totalPayroll() {
+        double total = 0;
+        for (int row = 0; row < size; row++) {
+            total += salaryAt(row);
+        }
+        return total;
+    }
+
+    /**
+     * Sums salaries per department in one pass, indexing an array by department code.
+     * @return Department names mapped to their total yearly salary
+     */
+    public Map<String, Double> totalPayrollByDepartment() {
+        double[] totals = new double[departments.size()];
+        for (int row = 0; row < size; row++) {
+            totals[departmentCodes[row]] += salaryAt(row);
+        }
+        Map<String, Double> result = new HashMap<>();
+        for (int code = 0; code < totals.length; code++) {
+            String department = departments.decode(code);
+            result.put(department == null ? "" : department, totals[code]);
+        }
+        return result;
+    }
+
+    /**
+     * Runs payroll over every row, producing the same report as PayrollEngine does for
+     * the equivalent list of employees.
+     * @return The payroll report
+     */
+    public PayrollReport runPayroll() {
+        double[] salaries = new double[size];
+        Arrays.parallelSetAll(salaries, this::salaryAt);
+
+        double total = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double[] byDepartment = new double[departments.size()];
+        double[] byType = new double[TYPE_INTERN + 1];
+        int[] countByType = new int[TYPE_INTERN + 1];
+        for (int row = 0; row < size; row++) {
+            double salary = salaries[row];
+            total += salary;
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+            byDepartment[departmentCodes[row]] += salary;
+            byType[types[row]] += salary;
+            countByType[types[row]]++;
+        }
+        Arrays.parallelSort(salaries);
+
+        Map<String, Double> departmentTotals = new HashMap<>();
+        for (int code = 0; code < byDepartment.length; code++) {
+            String department = departments.decode(code);
+            departmentTotals.put(department == null ? "" : department, byDepartment[code]);
+        }
+        Map<String, Double> typeTotals = new HashMap<>();
+        Map<String, Integer> headcount = new HashMap<>();
+        for (byte type = TYPE_MANAGER; type <= TYPE_INTERN; type++) {
+            if (countByType[type] > 0) {
+                typeTotals.put(typeName(type), byType[type]);
+                headcount.put(typeName(type), countByType[type]);
+            }
+        }
+        return new PayrollReport(total,
+                size == 0 ? 0.0 : min,
+                size == 0 ? 0.0 : max,
+                departmentTotals, typeTotals, headcount, salaries);
+    }
+
+    /**
+     * Gets a flyweight view of a row. It holds only the row index, so it always shows the
+     * row's current values. It can be passed to PayrollEngine; code that needs an Employee
+     * should use {@link #materialize(int)} instead.
+     * @param row The row index
+     * @return The view
+     */
+    public EmployeeView view(int row) {
+        return new RowView(checkRow(row));
+    }
+
+    /**
+     * Copies a row out into a standalone Manager, RegularEmployee or Intern.
+     * @param row The row index
+     * @return The new employee
+     */
+    public Employee materialize(int row) {
+        checkRow(row);
+        Employee emp;
+        switch (types[row]) {
+            case TYPE_MANAGER:
+                emp = new Manager(ids[row], names[row], getDepartment(row), baseSalaries[row], subordinates[row]);
+                break;
+            case TYPE_REGULAR:
+                emp = new RegularEmployee(ids[row], names[row], getDepartment(row), baseSalaries[row]);
+                break;
+            default:
+                emp = new Intern(ids[row], names[row], getDepartment(row), baseSalaries[row]);
+                break;
+        }
+        emp.setBonus(bonuses[row]);
+        emp.setFine(fines[row]);
+        emp.setPerformanceRating(getPerformanceRating(row));
+        return emp;
+    }
+
+    public List<Employee> materializeAll() {
+        List<Employee> employees = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            employees.add(materialize(row));
+        }
+        return employees;
+    }
+
+    private static byte typeOf(Employee employee) {
+        if (employee instanceof Manager) {
+            return TYPE_MANAGER;
+        } else if (employee instanceof RegularEmployee) {
+            return TYPE_REGULAR;
+        } else if (employee instanceof Intern) {
+            return TYPE_INTERN;
+        }
+        throw new IllegalArgumentException("Unsupported employee type: " + employee.getClass().getSimpleName());
+    }
+
+    private static String typeName(byte type) {
+        switch (type) {
+            case TYPE_MANAGER: return Manager.class.getSimpleName();
+            case TYPE_REGULAR: return RegularEmployee.class.getSimpleName();
+            default: return Intern.class.getSimpleName();
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of range for size " + size);
+        }
+        return row;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        baseSalaries = Arrays.copyOf(baseSalaries, capacity);
+        bonuses = Arrays.copyOf(bonuses, capacity);
+        fines = Arrays.copyOf(fines, capacity);
+        subordinates = Arrays.copyOf(subordinates, capacity);
+        types = Arrays.copyOf(types, capacity);
+        departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+    }
+
+    /**
+     * Assigns each distinct value a dense code, so a column can store an int instead of a reference.
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    /**
+     * Read-only view of one row; every call reads the columns.
+     */
+    private class RowView implements EmployeeView {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override public String getId() { return ids[row]; }
+        @Override public String getName() { return names[row]; }
+        @Override public String getDepartment() { return departments.decode(departmentCodes[row]); }
+        @Override public double getBaseSalary() { return baseSalaries[row]; }
+        @Override public PerformanceRating getPerformanceRating() { return RATINGS[ratings[row]]; }
+        @Override public double getBonus() { return bonuses[row]; }
+        @Override public double getFine() { return fines[row]; }
+        @Override public double calculateSalary() { return salaryAt(row); }
+        @Override public String getTypeName() { return typeName(types[row]); }
+        @Override public int getSubordinatesManaged() { return subordinates[row]; }
+
+        @Override
+        public String toString() {
+            return String.format("ID: %s, Name: %s, Department: %s, Total Salary: $%.2f, Performance Rating: %s, Type: %s",
+                    getId(), getName(), getDepartment(), calculateSalary(), getPerformanceRating(), getTypeName());
+        }
+    }
+}
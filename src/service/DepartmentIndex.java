@@ -0,0 +1,80 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import models.Employee;
+import models.StringDictionary;
+
+/**
+ * A multimap from case-folded department name to the employees in that department.
+ * Keys are pooled in StringDictionary, so buckets are found by identity rather than by
+ * hashing and comparing department strings.
+ */
+class DepartmentIndex {
+    private final Map<String, Set<Employee>> byDepartment = new IdentityHashMap<>();
+    // Remembers the department each employee was indexed under, so it can be removed after the employee changes
+    private final Map<Employee, String> indexedKeys = new IdentityHashMap<>();
+
+    void add(Employee employee) {
+        String key = keyFor(employee.getDepartment());
+        indexedKeys.put(employee, key);
+        byDepartment.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(employee);
+    }
+
+    void remove(Employee employee) {
+        String key = indexedKeys.remove(employee);
+        if (key == null) {
+            return;
+        }
+        Set<Employee> bucket = byDepartment.get(key);
+        bucket.remove(employee);
+        if (bucket.isEmpty()) {
+            byDepartment.remove(key);
+        }
+    }
+
+    void update(Employee employee) {
+        String oldKey = indexedKeys.get(employee);
+        if (oldKey != null && oldKey == keyFor(employee.getDepartment())) {
+            return; // Nothing changed
+        }
+        remove(employee);
+        add(employee);
+    }
+
+    void clear() {
+        byDepartment.clear();
+        indexedKeys.clear();
+    }
+
+    List<Employee> find(String department) {
+        // Look up without interning, so arbitrary search input never grows the pool
+        String key = StringDictionary.lookup(TextIndex.fold(department));
+        Set<Employee> bucket = key == null ? null : byDepartment.get(key);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket);
+    }
+
+    /**
+     * Finds employees whose department starts with the given text, ignoring case. There are
+     * few departments, so this checks each one rather than keeping a sorted key set.
+     */
+    List<Employee> findByPrefix(String prefix) {
+        String folded = TextIndex.fold(prefix);
+        List<Employee> result = new ArrayList<>();
+        for (Map.Entry<String, Set<Employee>> entry : byDepartment.entrySet()) {
+            if (entry.getKey().startsWith(folded)) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static String keyFor(String department) {
+        return StringDictionary.intern(TextIndex.fold(department));
+    }
+}
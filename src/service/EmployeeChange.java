@@ -0,0 +1,59 @@
+package service;
+
+import models.Employee;
+
+/**
+ * A change to the roster, as delivered to an {@link EmployeeChangeListener}.
+ */
+public final class EmployeeChange {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        REMOVED,
+        // The whole roster was replaced or reordered, e.g. by a load, clear or sort
+        RELOADED
+    }
+
+    private static final EmployeeChange RELOAD = new EmployeeChange(Type.RELOADED, null);
+
+    private final Type type;
+    private final Employee employee;
+
+    private EmployeeChange(Type type, Employee employee) {
+        this.type = type;
+        this.employee = employee;
+    }
+
+    public static EmployeeChange added(Employee employee) {
+        return new EmployeeChange(Type.ADDED, employee);
+    }
+
+    public static EmployeeChange updated(Employee employee) {
+        return new EmployeeChange(Type.UPDATED, employee);
+    }
+
+    public static EmployeeChange removed(Employee employee) {
+        return new EmployeeChange(Type.REMOVED, employee);
+    }
+
+    public static EmployeeChange reloaded() {
+        return RELOAD;
+    }
+
+    // Getters
+    public Type getType() { return type; }
+
+    /**
+     * Gets the employee that changed. For a removal this is the employee as it was removed.
+     * @return The employee, or null for RELOADED
+     */
+    public Employee getEmployee() { return employee; }
+
+    public String getEmployeeId() { return employee == null ? null : employee.getId(); }
+
+    @Override
+    public String toString() {
+        return employee == null ? type.toString() : type + " " + employee.getId();
+    }
+}
@@ -0,0 +1,21 @@
+package service;
+
+import java.util.List;
+
+/**
+ * Receives changes to the roster from {@link EmployeeService#addChangeListener}.
+ *
+ * Changes are delivered in batches on a background thread, in the order they were made,
+ * after bursts have been merged: several edits of one employee arrive as one change, an
+ * employee added and removed within a batch does not appear at all, and a RELOADED change
+ * replaces everything before it. Listeners that update a user interface must move the
+ * work to its own thread.
+ */
+public interface EmployeeChangeListener {
+
+    /**
+     * Called with the next batch of changes.
+     * @param changes The changes, oldest first; never empty
+     */
+    void employeesChanged(List<EmployeeChange> changes);
+}
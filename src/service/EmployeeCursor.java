@@ -0,0 +1,153 @@
+package service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import models.Employee;
+
+/**
+ * Pages through a list of employees. Only the current page is copied out of the list;
+ * over a roster snapshot each page costs O(log n + page size) however far in it starts.
+ * A cursor over a snapshot keeps showing that snapshot, so paging is stable while
+ * other threads change the roster.
+ */
+public class EmployeeCursor {
+    private final List<Employee> employees;
+    private int pageSize;
+    private int offset;
+
+    private EmployeeCursor(List<Employee> employees, int pageSize) {
+        this.employees = employees;
+        setPageSize(pageSize);
+    }
+
+    /**
+     * Opens a cursor on the first page of a list. The list must not change while the
+     * cursor is in use; the service's snapshots and sorted views never do.
+     * @param employees The employees to page through
+     * @param pageSize The number of employees per page, at least 1
+     * @return The cursor
+     */
+    public static EmployeeCursor of(List<Employee> employees, int pageSize) {
+        if (employees == null) {
+            throw new IllegalArgumentException("Employees cannot be null");
+        }
+        return new EmployeeCursor(employees, pageSize);
+    }
+
+    /**
+     * Gets the employees on the current page.
+     * @return A read-only list of at most the page size
+     */
+    public List<Employee> currentPage() {
+        int end = Math.min(offset + pageSize, employees.size());
+        List<Employee> page = new ArrayList<>(end - offset);
+        Iterator<Employee> it = employees instanceof EmployeeSnapshot
+                ? ((EmployeeSnapshot) employees).iterator(offset)
+                : employees.listIterator(offset);
+        for (int i = offset; i < end; i++) {
+            page.add(it.next());
+        }
+        return Collections.unmodifiableList(page);
+    }
+
+    /**
+     * Writes every employee the cursor pages through, one per line as shown by toString,
+     * walking the list once instead of page by page. The cursor does not move.
+     * @param out Where to write; buffering is up to the caller
+     * @throws IOException If writing fails
+     */
+    public void writeAll(Writer out) throws IOException {
+        Iterator<Employee> it = employees instanceof EmployeeSnapshot
+                ? ((EmployeeSnapshot) employees).iterator(0)
+                : employees.iterator();
+        while (it.hasNext()) {
+            out.write(it.next().toString());
+            out.write(System.lineSeparator());
+        }
+    }
+
+    public boolean hasNext() {
+        return offset + pageSize < employees.size();
+    }
+
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    /**
+     * Moves to the next page.
+     * @return The employees on the new page
+     * @throws NoSuchElementException If this is the last page
+     */
+    public List<Employee> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("Already on the last page");
+        }
+        offset += pageSize;
+        return currentPage();
+    }
+
+    /**
+     * Moves to the previous page.
+     * @return The employees on the new page
+     * @throws NoSuchElementException If this is the first page
+     */
+    public List<Employee> previous() {
+        if (!hasPrevious()) {
+            throw new NoSuchElementException("Already on the first page");
+        }
+        offset = Math.max(0, offset - pageSize);
+        return currentPage();
+    }
+
+    /**
+     * Moves to a page by number.
+     * @param page The page number, counting from 0
+     * @return The employees on that page
+     * @throws IllegalArgumentException If there is no such page
+     */
+    public List<Employee> jumpToPage(int page) {
+        if (page < 0 || page >= getPageCount()) {
+            throw new IllegalArgumentException("Page must be between 1 and " + getPageCount());
+        }
+        offset = page * pageSize;
+        return currentPage();
+    }
+
+    /**
+     * Changes the page size, staying on the page that holds the first employee shown.
+     * @param pageSize The number of employees per page, at least 1
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        this.pageSize = pageSize;
+        this.offset = offset / pageSize * pageSize;
+    }
+
+    // Getters
+    public int getPageSize() { return pageSize; }
+    public int getOffset() { return offset; }
+    public int getTotalCount() { return employees.size(); }
+
+    /**
+     * Gets the number of the current page, counting from 0.
+     */
+    public int getPageNumber() {
+        return offset / pageSize;
+    }
+
+    /**
+     * Gets the number of pages; an empty list has one empty page.
+     */
+    public int getPageCount() {
+        return Math.max(1, (employees.size() + pageSize - 1) / pageSize);
+    }
+}
@@ -1,18 +1,81 @@
 package service;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import models.Employee;
+import models.Performance;
+import models.PerformanceEvent;
+import models.PerformanceRating;
+import util.BinarySnapshot;
 import util.FileHandler;
+import util.FileHandler.JournalEntry;
+import util.FileHandler.JournalOperation;
+import util.PerformanceEventLog;
+import util.PerformanceHistoryStore;
 
+/**
+ * Manages the employee roster and its persistence. The service is safe to share between
+ * threads: changes are serialized by a write lock, queries on the secondary indexes share
+ * a read lock, and lookups by ID and reads of the roster through getSnapshot() take no
+ * lock at all. Callers that modify an employee through its setters should do so on one
+ * thread at a time and then call updateEmployee.
+ */
 public class EmployeeService {
-    private List<Employee> employees;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // The roster in stored order. Every change publishes a new immutable snapshot
+    private volatile EmployeeSnapshot employees = EmployeeSnapshot.empty(0);
+    // Each employee's position key in the snapshot; keys increase in stored order
+    private Map<String, Long> sequenceById = new HashMap<>();
+    private long nextSequence;
+    // Primary key index, kept in sync with the snapshot so lookups by ID are O(1) and lock-free
+    private volatile Map<String, Employee> employeesById;
+    // Secondary indexes for the department and name queries
+    private final DepartmentIndex departmentIndex = new DepartmentIndex();
+    private final TextIndex nameIndex = new TextIndex(Employee::getName);
+    // IDs are normally searched by prefix, so their index skips the trigrams and scans for substrings
+    private final TextIndex idIndex = new TextIndex(Employee::getId, false);
+    private final RatingIndex ratingIndex = new RatingIndex();
+    // Sorted views are built the first time they are requested and maintained from then on
+    private final Map<SortCriteria, SortedView> sortedViews = new EnumMap<>(SortCriteria.class);
     private String dataFilePath;
+    // Performance history lives beside the data file and is attached to each employee, which reads it on demand
+    private final PerformanceHistoryStore historyStore;
+    // Performance actions are appended to a log beside the data file, opened on first use
+    private PerformanceEventLog eventLog;
+    // Tells listeners about changes to the roster
+    private final ChangeNotifier changeNotifier = new ChangeNotifier();
+    // Single-record changes are appended to a journal; once it holds this many entries it is
+    // compacted into a fresh snapshot of the data file
+    private static final int DEFAULT_JOURNAL_COMPACTION_THRESHOLD = 1000;
+    private int journalCompactionThreshold = DEFAULT_JOURNAL_COMPACTION_THRESHOLD;
+    private int journalEntries;
+    // Set when the employees in memory no longer match the data file plus its journal,
+    // in which case the next change must write a full snapshot rather than a journal entry
+    private boolean snapshotStale;
+    // Previous versions of the data file kept on each full save
+    private volatile int backupCount;
+    // Rows handed to a LoadMonitor at a time
+    private static final int LOAD_BATCH_SIZE = 5000;
 
     public enum SortCriteria {
         BY_ID,
@@ -23,56 +86,417 @@ public class EmployeeService {
     }
 
     public EmployeeService() {
-        this.employees = new ArrayList<>();
+        this.employeesById = new ConcurrentHashMap<>();
         this.dataFilePath = "employee_data.csv"; // Default file path
+        this.historyStore = PerformanceHistoryStore.forDataFile(this.dataFilePath);
+        this.snapshotStale = true;
     }
 
     public EmployeeService(String dataFilePath) {
-        this.employees = new ArrayList<>();
+        this.employeesById = new ConcurrentHashMap<>();
         this.dataFilePath = dataFilePath;
+        this.historyStore = PerformanceHistoryStore.forDataFile(dataFilePath);
         loadEmployeesFromFile(dataFilePath);
     }
 
     public void clearEmployees() {
-        this.employees.clear();
+        lock.writeLock().lock();
+        try {
+            this.employees = EmployeeSnapshot.empty(employees.getVersion() + 1);
+            this.employeesById.clear();
+            this.sequenceById.clear();
+            departmentIndex.clear();
+            nameIndex.clear();
+            idIndex.clear();
+            ratingIndex.clear();
+            sortedViews.clear();
+            snapshotStale = true;
+            changeNotifier.publish(EmployeeChange.reloaded());
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Gets all employees in the order they are stored in. The list is an immutable snapshot
+     * that later changes do not affect, so it can be iterated while other threads write.
+     * @return A read-only list of all employees
+     */
     public List<Employee> getEmployees() {
         return employees;
     }
 
+    /**
+     * Gets an immutable, versioned snapshot of the roster in stored order. Taking a snapshot
+     * is free: it is the structure writers publish, not a copy.
+     * @return The current snapshot
+     */
+    public EmployeeSnapshot getSnapshot() {
+        return employees;
+    }
+
+    /**
+     * Opens a cursor that pages through the roster in stored order. The cursor reads from
+     * the current snapshot, so later changes do not shift its pages.
+     * @param pageSize The number of employees per page, at least 1
+     * @return A cursor on the first page
+     */
+    public EmployeeCursor openCursor(int pageSize) {
+        return EmployeeCursor.of(employees, pageSize);
+    }
+
+    /**
+     * Opens a cursor that pages through the roster in sorted order, reading from the
+     * maintained sorted view rather than sorting a copy.
+     * @param criteria The order to page in
+     * @param pageSize The number of employees per page, at least 1
+     * @return A cursor on the first page
+     */
+    public EmployeeCursor openCursor(SortCriteria criteria, int pageSize) {
+        return EmployeeCursor.of(getSortedEmployees(criteria), pageSize);
+    }
+
+    /**
+     * Gets the version of the roster, which increases with every change, so callers can
+     * cheaply tell whether anything changed since they last looked.
+     * @return The current version
+     */
+    public long getVersion() {
+        return employees.getVersion();
+    }
+
+    /**
+     * Registers a listener to be told about every change to the roster from now on.
+     * Changes are delivered in merged batches on a background thread; see {@link EmployeeChangeListener}.
+     * @param listener The listener
+     */
+    public void addChangeListener(EmployeeChangeListener listener) {
+        changeNotifier.addListener(listener);
+    }
+
+    public void removeChangeListener(EmployeeChangeListener listener) {
+        changeNotifier.removeListener(listener);
+    }
+
+    /**
+     * Loads employees from a data file and replays any changes recorded in its journal.
+     * @param filePath The path of the data file
+     */
     public void loadEmployeesFromFile(String filePath) {
+        List<Employee> loaded;
+        List<JournalEntry> journal;
+        try {
+            loaded = FileHandler.readEmployees(filePath);
+            journal = FileHandler.readJournal(filePath);
+        } catch (IOException e) {
+            System.err.println("Error loading employees: " + e.getMessage());
+            loaded = new ArrayList<>();
+            journal = new ArrayList<>();
+        }
+        install(filePath, loaded, journal);
+    }
+
+    /**
+     * Loads employees from a data file like {@link #loadEmployeesFromFile(String)}, handing the
+     * rows to a monitor in batches as they are read so a caller can show them before the load
+     * finishes. CSV files are read row by row rather than in parallel for this; binary
+     * snapshots arrive as a single batch.
+     * @param filePath The path of the data file
+     * @param monitor Receives the rows and may cancel the load
+     * @return true if the load finished, false if it was cancelled and the roster left unchanged
+     */
+    public boolean loadEmployeesFromFile(String filePath, LoadMonitor monitor) {
+        List<Employee> loaded = new ArrayList<>();
+        List<JournalEntry> journal;
         try {
-            this.employees = FileHandler.readEmployees(filePath);
+            long totalBytes = new File(filePath).length();
+            if (BinarySnapshot.isSnapshotFile(filePath)) {
+                loaded = FileHandler.readEmployees(filePath);
+                monitor.rowsLoaded(new ArrayList<>(loaded), totalBytes, totalBytes);
+            } else {
+                long[] bytesRead = new long[1];
+                try (Stream<Employee> stream = FileHandler.streamEmployees(filePath, position -> bytesRead[0] = position)) {
+                    List<Employee> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                    for (Iterator<Employee> rows = stream.iterator(); rows.hasNext(); ) {
+                        if (monitor.isCancelled()) {
+                            return false;
+                        }
+                        batch.add(rows.next());
+                        if (batch.size() == LOAD_BATCH_SIZE) {
+                            loaded.addAll(batch);
+                            monitor.rowsLoaded(batch, bytesRead[0], totalBytes);
+                            batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                        }
+                    }
+                    loaded.addAll(batch);
+                    monitor.rowsLoaded(batch, totalBytes, totalBytes);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+            journal = FileHandler.readJournal(filePath);
         } catch (IOException e) {
             System.err.println("Error loading employees: " + e.getMessage());
-            this.employees = new ArrayList<>();
+            loaded = new ArrayList<>();
+            journal = new ArrayList<>();
+        }
+        if (monitor.isCancelled()) {
+            return false;
+        }
+        install(filePath, loaded, journal);
+        return true;
+    }
+
+    /**
+     * Replays a journal on top of loaded rows and makes the result the current roster.
+     */
+    private void install(String filePath, List<Employee> loaded, List<JournalEntry> journal) {
+        if (!journal.isEmpty()) {
+            loaded = replayJournal(loaded, journal);
+        }
+        lock.writeLock().lock();
+        try {
+            rebuildIndex(loaded);
+            if (filePath.equals(dataFilePath)) {
+                journalEntries = journal.size();
+                snapshotStale = false;
+            } else {
+                snapshotStale = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
+    /**
+     * Applies journal entries on top of a loaded snapshot. Replay is idempotent, so a journal
+     * that survived a crash during compaction can safely be applied to the new snapshot again.
+     */
+    private static List<Employee> replayJournal(List<Employee> snapshot, List<JournalEntry> journal) {
+        Map<String, Employee> byId = new LinkedHashMap<>();
+        for (Employee emp : snapshot) {
+            byId.putIfAbsent(emp.getId(), emp);
+        }
+        for (JournalEntry entry : journal) {
+            if (entry.getOperation() == JournalOperation.DELETE) {
+                byId.remove(entry.getEmployeeId());
+            } else {
+                byId.put(entry.getEmployeeId(), entry.getEmployee());
+            }
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    /**
+     * Replaces the current employees with the given list and rebuilds all indexes.
+     * Rows whose ID is already taken are skipped so the list and index never disagree.
+     * @param loaded The employees to hold from now on
+     */
+    private void rebuildIndex(List<Employee> loaded) {
+        List<Employee> rebuilt = new ArrayList<>(loaded.size());
+        Map<String, Employee> byId = new ConcurrentHashMap<>(Math.max(16, loaded.size()));
+        departmentIndex.clear();
+        nameIndex.clear();
+        idIndex.clear();
+        ratingIndex.clear();
+        sortedViews.clear();
+        for (Employee emp : loaded) {
+            if (emp.getId() != null && byId.putIfAbsent(emp.getId(), emp) == null) {
+                rebuilt.add(emp);
+                indexEmployee(emp);
+            } else {
+                System.err.println("Skipping duplicate employee ID: " + emp.getId());
+            }
+        }
+        this.employeesById = byId;
+        publishInOrder(rebuilt);
+    }
+
+    /**
+     * Publishes a new snapshot holding exactly the given employees in the given order.
+     * Called with the write lock held.
+     */
+    private void publishInOrder(List<Employee> ordered) {
+        Map<String, Long> sequences = new HashMap<>(Math.max(16, (int) (ordered.size() / 0.75f) + 1));
+        for (int i = 0; i < ordered.size(); i++) {
+            sequences.put(ordered.get(i).getId(), (long) i);
+        }
+        this.sequenceById = sequences;
+        this.nextSequence = ordered.size();
+        this.employees = EmployeeSnapshot.of(ordered, employees.getVersion() + 1);
+        changeNotifier.publish(EmployeeChange.reloaded());
+    }
+
     public void saveEmployeesToFile(String filePath) {
-        FileHandler.writeEmployees(employees, filePath);
+        // The snapshot's structure never changes, but its employees are edited in place; edits
+        // made through updateEmployee(id, edit) hold the write lock, so none is saved half-applied
+        lock.readLock().lock();
+        try {
+            writeSnapshot(filePath);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean writeSnapshot(String filePath) {
+        try {
+            FileHandler.writeEmployees(employees, filePath, backupCount);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving employees: " + e.getMessage());
+            return false;
+        }
     }
 
+    /**
+     * Adds a new employee and persists the change.
+     * @param employee The employee to add
+     * @throws IllegalArgumentException If the employee has no ID or an employee with the same ID already exists
+     */
     public void addEmployee(Employee employee) {
-        employees.add(employee);
-        saveChanges();
+        if (employee.getId() == null) {
+            throw new IllegalArgumentException("Employee ID cannot be empty");
+        }
+        lock.writeLock().lock();
+        try {
+            if (employeesById.putIfAbsent(employee.getId(), employee) != null) {
+                throw new IllegalArgumentException("An employee with ID " + employee.getId() + " already exists");
+            }
+            long sequence = nextSequence++;
+            sequenceById.put(employee.getId(), sequence);
+            employees = employees.with(sequence, employee, employees.getVersion() + 1);
+            indexEmployee(employee);
+            recordChange(JournalOperation.ADD, employee);
+            changeNotifier.publish(EmployeeChange.added(employee));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Edits an employee under the write lock, then persists the change and refreshes the
+     * secondary indexes. Readers, saves and the journal never see a half-applied edit, as
+     * they can when setters are called before {@link #updateEmployee(Employee)}. The edit
+     * should check its values before setting any; if it throws, whatever it had already
+     * set is still persisted, and the exception is rethrown.
+     * @param id The ID of the employee to edit
+     * @param edit Applies the changes through the employee's setters
+     * @return The edited employee
+     * @throws IllegalArgumentException If there is no employee with that ID
+     */
+    public Employee updateEmployee(String id, Consumer<Employee> edit) {
+        lock.writeLock().lock();
+        try {
+            Employee employee = id == null ? null : employeesById.get(id);
+            if (employee == null) {
+                throw new IllegalArgumentException("Employee with ID " + id + " not found");
+            }
+            try {
+                edit.accept(employee);
+            } finally {
+                updateEmployee(employee);
+            }
+            return employee;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Persists changes made to an employee through its setters and refreshes the
+     * secondary indexes for its name, department and rating. The setters run without
+     * the service's lock, so concurrent readers may see the edit part way through;
+     * {@link #updateEmployee(String, Consumer)} avoids that.
+     * @param employee The employee that was modified
+     * @throws IllegalArgumentException If the employee is not managed by this service
+     */
+    public void updateEmployee(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            if (employee.getId() == null || employeesById.get(employee.getId()) != employee) {
+                throw new IllegalArgumentException("Employee with ID " + employee.getId() + " not found");
+            }
+            departmentIndex.update(employee);
+            nameIndex.update(employee);
+            ratingIndex.update(employee);
+            for (SortedView view : sortedViews.values()) {
+                view.update(employee);
+            }
+            // The snapshot's structure is unchanged, but readers comparing versions must see the edit
+            long sequence = sequenceById.get(employee.getId());
+            employees = employees.with(sequence, employee, employees.getVersion() + 1);
+            recordChange(JournalOperation.UPDATE, employee);
+            changeNotifier.publish(EmployeeChange.updated(employee));
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public boolean deleteEmployee(String id) {
-        boolean removed = employees.removeIf(e -> e.getId().equals(id));
-        if (removed) {
-            saveChanges();
+        if (id == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Employee removed = employeesById.remove(id);
+            if (removed == null) {
+                return false;
+            }
+            employees = employees.without(sequenceById.remove(id), employees.getVersion() + 1);
+            departmentIndex.remove(removed);
+            nameIndex.remove(removed);
+            idIndex.remove(removed);
+            ratingIndex.remove(removed);
+            for (SortedView view : sortedViews.values()) {
+                view.remove(removed);
+            }
+            recordChange(JournalOperation.DELETE, removed);
+            forgetPerformance(id);
+            changeNotifier.publish(EmployeeChange.removed(removed));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the employees ordered by the given criterion without reordering the master list,
+     * so the order employees are saved in is unaffected. Each view is kept sorted as
+     * employees are added, updated and deleted, so switching between views does not re-sort.
+     * Ties are broken by ID.
+     * @param criteria The order to return employees in
+     * @return A read-only list of all employees in that order
+     */
+    public List<Employee> getSortedEmployees(SortCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            SortedView view = sortedViews.get(criteria);
+            if (view != null) {
+                return view.asList();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        // First request for this order: build the view, which needs exclusive access
+        lock.writeLock().lock();
+        try {
+            return sortedViews.computeIfAbsent(criteria, c -> new SortedView(c, employees)).asList();
+        } finally {
+            lock.writeLock().unlock();
         }
-        return removed;
     }
 
+    /**
+     * Reorders the master list, which also changes the order employees are saved in.
+     * Prefer {@link #getSortedEmployees(SortCriteria)} for display.
+     * @param criteria The order to sort employees in
+     */
     public void sortEmployees(SortCriteria criteria) {
         Comparator<Employee> comparator;
         switch (criteria) {
             case BY_ID:
-                comparator = Comparator.comparing(employee -> 
-                    Integer.parseInt(employee.getId().replaceAll("\\D", "")));
+                // Numeric IDs in numeric order, then non-numeric ones alphabetically
+                comparator = Comparator.comparingLong(Employee::getIdKey).thenComparing(Employee::getId);
                 break;
             case BY_NAME:
                 comparator = Comparator.comparing(Employee::getName);
@@ -85,31 +509,354 @@ public class EmployeeService {
                 comparator = Comparator.comparingDouble(Employee::calculateSalary).reversed();
                 break;
             case BY_PERFORMANCE_RATING:
+                // Rating order, lowest first; PerformanceRating constants are declared in that order
                 comparator = Comparator.comparing(Employee::getPerformanceRating);
                 break;
             default:
                 return; // No sorting
         }
-        this.employees.sort(comparator);
+        lock.writeLock().lock();
+        try {
+            List<Employee> sorted = new ArrayList<>(employees);
+            sorted.sort(comparator);
+            publishInOrder(sorted);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
+    /**
+     * Writes a full snapshot of all employees to the data file and discards its journal.
+     */
     public void saveChanges() {
-        saveEmployeesToFile(this.dataFilePath);
+        lock.writeLock().lock();
+        try {
+            if (!writeSnapshot(this.dataFilePath)) {
+                return; // Keep the journal, it still describes changes the data file lacks
+            }
+            FileHandler.clearJournal(this.dataFilePath);
+            journalEntries = 0;
+            snapshotStale = false;
+        } catch (IOException e) {
+            System.err.println("Error clearing journal: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a performance action for an employee in the event log. Bonus and fine
+     * events also add their amount to the employee's bonus or fine.
+     * @param event The event to record
+     * @return true if the event was recorded, false if the log could not be written
+     * @throws IllegalArgumentException If the employee does not exist
+     */
+    public boolean recordPerformanceEvent(PerformanceEvent event) {
+        boolean adjustsPay = event.getAmount() > 0
+                && (event.getType() == PerformanceEvent.Type.BONUS || event.getType() == PerformanceEvent.Type.FINE);
+        if (adjustsPay && Double.isInfinite(event.getAmount())) {
+            throw new IllegalArgumentException("Amount must be a finite number");
+        }
+        // Held across the log append and the adjustment so concurrent events for one
+        // employee neither lose an update nor land in the log without being applied
+        lock.writeLock().lock();
+        try {
+            Employee employee = employeesById.get(event.getEmployeeId());
+            if (employee == null) {
+                throw new IllegalArgumentException("Employee with ID " + event.getEmployeeId() + " not found");
+            }
+            try {
+                getEventLog().append(event);
+            } catch (IOException e) {
+                System.err.println("Error recording performance event: " + e.getMessage());
+                return false;
+            }
+            if (adjustsPay) {
+                if (event.getType() == PerformanceEvent.Type.BONUS) {
+                    employee.addBonus(event.getAmount());
+                } else {
+                    employee.addFine(event.getAmount());
+                }
+                updateEmployee(employee);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds an employee's performance events dated within a range, oldest entry first.
+     * @param employeeId The employee ID
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching events, in the order they were recorded
+     */
+    public List<PerformanceEvent> findPerformanceEvents(String employeeId, LocalDate from, LocalDate to) {
+        try {
+            return getEventLog().findByEmployee(employeeId, from, to);
+        } catch (IOException e) {
+            System.err.println("Error reading performance events: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the performance events of all employees dated within a range.
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching events, in the order they were recorded
+     */
+    public List<PerformanceEvent> findPerformanceEvents(LocalDate from, LocalDate to) {
+        try {
+            return getEventLog().findByDateRange(from, to);
+        } catch (IOException e) {
+            System.err.println("Error reading performance events: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the actions recorded in an employee's monthly performance reviews, e.g. all
+     * warnings issued within a date range.
+     * @param employeeId The employee ID
+     * @param type The action type, or null for all types
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching entries, in review order, or an empty list if there is no such employee
+     */
+    public List<PerformanceEvent> findPerformanceEntries(String employeeId, PerformanceEvent.Type type,
+                                                         LocalDate from, LocalDate to) {
+        List<PerformanceEvent> result = new ArrayList<>();
+        Employee employee = employeeId == null ? null : employeesById.get(employeeId);
+        if (employee == null) {
+            return result;
+        }
+        for (Performance review : employee.getPerformanceHistory()) {
+            result.addAll(review.getEntries(type, from, to));
+        }
+        return result;
+    }
+
+    /**
+     * Releases the files the service holds open, checkpointing the performance event log.
+     */
+    public synchronized void close() {
+        if (eventLog == null) {
+            return;
+        }
+        try {
+            eventLog.close();
+        } catch (IOException e) {
+            System.err.println("Error closing performance event log: " + e.getMessage());
+        }
+        eventLog = null;
+    }
+
+    /**
+     * Deletes a removed employee's performance history and events, which are kept by ID,
+     * so they do not reappear for a new employee given the same ID.
+     */
+    private void forgetPerformance(String employeeId) {
+        try {
+            historyStore.delete(employeeId);
+        } catch (UncheckedIOException e) {
+            System.err.println("Error deleting performance history: " + e.getMessage());
+        }
+        try {
+            // Avoid creating an event log just to record that it is empty
+            if (new File(dataFilePath + PerformanceEventLog.LOG_SUFFIX).exists()) {
+                getEventLog().removeEmployee(employeeId);
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing performance events: " + e.getMessage());
+        }
+    }
+
+    private synchronized PerformanceEventLog getEventLog() throws IOException {
+        if (eventLog == null) {
+            eventLog = PerformanceEventLog.forDataFile(dataFilePath);
+        }
+        return eventLog;
+    }
+
+    /**
+     * Sets how many previous versions of the data file are kept, as data.csv.bak1,
+     * data.csv.bak2 and so on, each time the whole file is saved.
+     * @param count The number of backups to keep, or 0 to keep none
+     */
+    public void setBackupCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Backup count cannot be negative");
+        }
+        this.backupCount = count;
+    }
+
+    /**
+     * Sets how many journal entries may accumulate before they are compacted into a new snapshot.
+     * @param threshold The maximum number of journal entries, at least 1
+     */
+    public void setJournalCompactionThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold must be at least 1");
+        }
+        lock.writeLock().lock();
+        try {
+            this.journalCompactionThreshold = threshold;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Persists a single-record change by appending it to the journal, compacting the
+     * journal into a fresh snapshot when it grows past the threshold. Called with the write lock held.
+     */
+    private void recordChange(JournalOperation operation, Employee employee) {
+        if (snapshotStale) {
+            saveChanges();
+            return;
+        }
+        try {
+            FileHandler.appendJournalEntry(this.dataFilePath, operation, employee);
+            journalEntries++;
+        } catch (IOException e) {
+            System.err.println("Error writing journal, saving a full snapshot instead: " + e.getMessage());
+            saveChanges();
+            return;
+        }
+        if (journalEntries >= journalCompactionThreshold) {
+            saveChanges();
+        }
+    }
+
+    /**
+     * Runs payroll over the current roster. Works on an immutable snapshot, so it neither
+     * blocks nor is disturbed by concurrent changes.
+     * @return The payroll report
+     */
+    public PayrollReport runPayroll() {
+        return new PayrollEngine().run(getSnapshot());
     }
 
     public Optional<Employee> findEmployeeById(String id) {
-        return employees.stream().filter(e -> e.getId().equals(id)).findFirst();
+        return id == null ? Optional.empty() : Optional.ofNullable(employeesById.get(id));
     }
 
+    /**
+     * Finds employees whose name contains the given text, ignoring case.
+     * @param name The text to search for
+     * @return The matching employees, ordered by name
+     */
     public List<Employee> findEmployeesByName(String name) {
-        return employees.stream()
-                .filter(e -> e.getName().toLowerCase().contains(name.toLowerCase()))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return nameIndex.findBySubstring(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds employees whose name starts with the given text, ignoring case.
+     * @param prefix The text to search for
+     * @return The matching employees, ordered by name
+     */
+    public List<Employee> findEmployeesByNamePrefix(String prefix) {
+        lock.readLock().lock();
+        try {
+            return nameIndex.findByPrefix(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds employees matching free text typed into a search box: those whose name contains
+     * the text, whose ID starts with it, or whose department starts with it, ignoring case.
+     * @param query The text to search for
+     * @return The matching employees: name matches ordered by name, then ID matches, then
+     *         department matches, each employee once
+     */
+    public List<Employee> searchEmployees(String query) {
+        lock.readLock().lock();
+        try {
+            Set<Employee> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Employee> result = new ArrayList<>();
+            for (List<Employee> found : List.of(nameIndex.findBySubstring(query), idIndex.findByPrefix(query), departmentIndex.findByPrefix(query))) {
+                for (Employee emp : found) {
+                    if (matches.add(emp)) {
+                        result.add(emp);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a test for whether an employee matches a search the way {@link #searchEmployees} does.
+     * A query that extends an earlier one only matches a subset of its results, so callers can
+     * narrow those results with this instead of searching again.
+     * @param query The text to search for
+     * @return A predicate that is true for matching employees
+     */
+    public static Predicate<Employee> searchFilter(String query) {
+        String folded = TextIndex.fold(query); // once, not per employee
+        return employee -> TextIndex.fold(employee.getName()).contains(folded)
+                || TextIndex.fold(employee.getId()).startsWith(folded)
+                || TextIndex.fold(employee.getDepartment()).startsWith(folded);
     }
 
     public List<Employee> findEmployeesByDepartment(String department) {
-        return employees.stream()
-                .filter(e -> e.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return departmentIndex.find(department);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds employees rated at least the given rating, using the rating bitmap index.
+     * Unrated employees are only included when the minimum is NOT_RATED.
+     * @param minimum The lowest rating to include
+     * @return The matching employees, in no particular order
+     */
+    public List<Employee> findEmployeesByMinimumRating(PerformanceRating minimum) {
+        if (minimum == null) {
+            throw new IllegalArgumentException("Minimum rating cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            return ratingIndex.findAtLeast(minimum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int countEmployeesByMinimumRating(PerformanceRating minimum) {
+        if (minimum == null) {
+            throw new IllegalArgumentException("Minimum rating cannot be null");
+        }
+        lock.readLock().lock();
+        try {
+            return ratingIndex.countAtLeast(minimum);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexEmployee(Employee employee) {
+        employee.setPerformanceHistorySource(historyStore);
+        departmentIndex.add(employee);
+        nameIndex.add(employee);
+        idIndex.add(employee);
+        ratingIndex.add(employee);
+        for (SortedView view : sortedViews.values()) {
+            view.add(employee);
+        }
     }
 }
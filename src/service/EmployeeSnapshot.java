@@ -0,0 +1,243 @@
+package service;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import models.Employee;
+
+/**
+ * An immutable, versioned view of the roster in stored order. Snapshots are persistent:
+ * a change produces a new snapshot that shares all but O(log n) of its structure with the
+ * previous one, so writers can publish every change cheaply and readers can keep iterating
+ * an older snapshot without copying or locking.
+ *
+ * Internally this is an AVL tree keyed by a sequence number that increases in stored order,
+ * with subtree sizes so that positional access is O(log n).
+ */
+public final class EmployeeSnapshot extends AbstractList<Employee> {
+    private static final EmployeeSnapshot EMPTY = new EmployeeSnapshot(null, 0);
+
+    private final Node root;
+    private final long version;
+
+    private EmployeeSnapshot(Node root, long version) {
+        this.root = root;
+        this.version = version;
+    }
+
+    static EmployeeSnapshot empty(long version) {
+        return version == 0 ? EMPTY : new EmployeeSnapshot(null, version);
+    }
+
+    /**
+     * Builds a balanced snapshot in O(n), giving the employees the sequence numbers 0 to n-1.
+     */
+    static EmployeeSnapshot of(List<Employee> employees, long version) {
+        Employee[] items = employees.toArray(new Employee[0]);
+        return new EmployeeSnapshot(build(items, 0, items.length - 1), version);
+    }
+
+    /**
+     * The version of the roster this snapshot captures. Versions increase with every change.
+     * @return The version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether the roster may have changed between the given version and this snapshot.
+     * @param otherVersion A version obtained earlier from getVersion()
+     * @return true if this snapshot is of a different version
+     */
+    public boolean hasChangedSince(long otherVersion) {
+        return version != otherVersion;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public Employee get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Employee> iterator() {
+        return new InOrderIterator(root, 0);
+    }
+
+    /**
+     * Iterates from the given position in O(log n + k) for k elements, rather than the
+     * O(k log n) that repeated calls to get would cost.
+     * @param index The position of the first employee to return
+     * @return An iterator over the employees from that position on
+     */
+    public Iterator<Employee> iterator(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return new InOrderIterator(root, index);
+    }
+
+    EmployeeSnapshot with(long key, Employee employee, long newVersion) {
+        return new EmployeeSnapshot(insert(root, key, employee), newVersion);
+    }
+
+    EmployeeSnapshot without(long key, long newVersion) {
+        return new EmployeeSnapshot(remove(root, key), newVersion);
+    }
+
+    private static final class Node {
+        final long key;
+        final Employee value;
+        final Node left;
+        final Node right;
+        final int size;
+        final int height;
+
+        Node(long key, Employee value, Node left, Node right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node build(Employee[] items, int from, int to) {
+        if (from > to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(mid, items[mid], build(items, from, mid - 1), build(items, mid + 1, to));
+    }
+
+    private static Node insert(Node node, long key, Employee value) {
+        if (node == null) {
+            return new Node(key, value, null, null);
+        }
+        if (key < node.key) {
+            return balance(node.key, node.value, insert(node.left, key, value), node.right);
+        } else if (key > node.key) {
+            return balance(node.key, node.value, node.left, insert(node.right, key, value));
+        }
+        return new Node(key, value, node.left, node.right);
+    }
+
+    private static Node remove(Node node, long key) {
+        if (node == null) {
+            return null;
+        }
+        if (key < node.key) {
+            return balance(node.key, node.value, remove(node.left, key), node.right);
+        } else if (key > node.key) {
+            return balance(node.key, node.value, node.left, remove(node.right, key));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return balance(successor.key, successor.value, node.left, remove(node.right, successor.key));
+    }
+
+    /**
+     * Creates a node from the given parts, rotating once or twice if the subtrees' heights differ by more than one.
+     */
+    private static Node balance(long key, Employee value, Node left, Node right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node(left.key, left.value, left.left, new Node(key, value, left.right, right));
+            }
+            Node pivot = left.right;
+            return new Node(pivot.key, pivot.value,
+                    new Node(left.key, left.value, left.left, pivot.left),
+                    new Node(key, value, pivot.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node(right.key, right.value, new Node(key, value, left, right.left), right.right);
+            }
+            Node pivot = right.left;
+            return new Node(pivot.key, pivot.value,
+                    new Node(key, value, left, pivot.left),
+                    new Node(right.key, right.value, pivot.right, right.right));
+        }
+        return new Node(key, value, left, right);
+    }
+
+    private static final class InOrderIterator implements Iterator<Employee> {
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        InOrderIterator(Node root, int index) {
+            // Descend to the starting position, remembering the nodes still to be visited
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    stack.push(node);
+                    node = node.left;
+                } else if (index == leftSize) {
+                    stack.push(node);
+                    break;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Employee next() {
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node node = stack.pop();
+            for (Node next = node.right; next != null; next = next.left) {
+                stack.push(next);
+            }
+            return node.value;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package service;
+
+import java.util.List;
+
+import models.Employee;
+
+/**
+ * Follows a load started with {@link EmployeeService#loadEmployeesFromFile(String, LoadMonitor)}.
+ * The monitor is called on the loading thread, so implementations that touch a user
+ * interface must hand the rows over to its own thread.
+ */
+public interface LoadMonitor {
+
+    /**
+     * Receives the next batch of rows read from the file, before any journal is applied.
+     * @param rows The rows, in file order; the list is not used by the service afterwards
+     * @param bytesRead How far into the file the reader has got
+     * @param totalBytes The size of the file
+     */
+    void rowsLoaded(List<Employee> rows, long bytesRead, long totalBytes);
+
+    /**
+     * Tells the service to stop reading. A cancelled load leaves the roster as it was.
+     * @return true if the load should stop
+     */
+    boolean isCancelled();
+}
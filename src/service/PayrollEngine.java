@@ -0,0 +1,89 @@
+package service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import models.EmployeeView;
+
+/**
+ * Computes payroll reports. Salaries are calculated once per employee in a single parallel
+ * pass that fills a primitive array and accumulates every total at the same time; the array
+ * is then sorted in parallel to answer percentile queries exactly.
+ */
+public class PayrollEngine {
+
+    /**
+     * Runs payroll over the given employees. The list should not change during the run;
+     * an EmployeeSnapshot is ideal since it never does. Rows viewed from a
+     * ColumnarEmployeeStore can be paid the same way.
+     * @param employees The employees to pay
+     * @return The payroll report
+     */
+    public PayrollReport run(List<? extends EmployeeView> employees) {
+        EmployeeView[] roster = employees.toArray(new EmployeeView[0]);
+        double[] salaries = new double[roster.length];
+
+        Totals totals = IntStream.range(0, roster.length)
+                .parallel()
+                .collect(Totals::new, (acc, i) -> {
+                    double salary = roster[i].calculateSalary();
+                    salaries[i] = salary;
+                    acc.add(roster[i], salary);
+                }, Totals::merge);
+
+        Arrays.parallelSort(salaries);
+
+        Map<String, Double> byDepartment = new HashMap<>();
+        totals.byDepartment.forEach((department, sum) -> byDepartment.put(department, sum[0]));
+        Map<String, Double> byType = new HashMap<>();
+        Map<String, Integer> headcount = new HashMap<>();
+        totals.byType.forEach((type, sum) -> {
+            byType.put(type, sum[0]);
+            headcount.put(type, (int) sum[1]);
+        });
+
+        return new PayrollReport(totals.sum,
+                roster.length == 0 ? 0.0 : totals.min,
+                roster.length == 0 ? 0.0 : totals.max,
+                byDepartment, byType, headcount, salaries);
+    }
+
+    /**
+     * Per-thread running totals. Map values are small primitive arrays so that adding an
+     * employee never boxes a double: {sum} for departments and {sum, count} for types.
+     */
+    private static class Totals {
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private final Map<String, double[]> byDepartment = new HashMap<>();
+        private final Map<String, double[]> byType = new HashMap<>();
+
+        void add(EmployeeView employee, double salary) {
+            sum += salary;
+            min = Math.min(min, salary);
+            max = Math.max(max, salary);
+            String department = employee.getDepartment() == null ? "" : employee.getDepartment();
+            byDepartment.computeIfAbsent(department, k -> new double[1])[0] += salary;
+            double[] type = byType.computeIfAbsent(employee.getTypeName(), k -> new double[2]);
+            type[0] += salary;
+            type[1]++;
+        }
+
+        void merge(Totals other) {
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            other.byDepartment.forEach((key, value) ->
+                    byDepartment.computeIfAbsent(key, k -> new double[1])[0] += value[0]);
+            other.byType.forEach((key, value) -> {
+                double[] type = byType.computeIfAbsent(key, k -> new double[2]);
+                type[0] += value[0];
+                type[1] += value[1];
+            });
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The result of a payroll run: yearly salary totals for the whole roster, per department
+ * and per employee type, together with summary statistics of individual salaries.
+ */
+public class PayrollReport {
+    private final int employeeCount;
+    private final double totalPayroll;
+    private final double minSalary;
+    private final double maxSalary;
+    private final Map<String, Double> totalsByDepartment;
+    private final Map<String, Double> totalsByType;
+    private final Map<String, Integer> headcountByType;
+    // All salaries in ascending order, kept so any percentile can be answered exactly
+    private final double[] sortedSalaries;
+
+    PayrollReport(double totalPayroll, double minSalary, double maxSalary,
+                  Map<String, Double> totalsByDepartment, Map<String, Double> totalsByType,
+                  Map<String, Integer> headcountByType, double[] sortedSalaries) {
+        this.employeeCount = sortedSalaries.length;
+        this.totalPayroll = totalPayroll;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.totalsByDepartment = Collections.unmodifiableMap(new TreeMap<>(totalsByDepartment));
+        this.totalsByType = Collections.unmodifiableMap(new TreeMap<>(totalsByType));
+        this.headcountByType = Collections.unmodifiableMap(new TreeMap<>(headcountByType));
+        this.sortedSalaries = sortedSalaries;
+    }
+
+    // Getters
+    public int getEmployeeCount() { return employeeCount; }
+    public double getTotalPayroll() { return totalPayroll; }
+    public double getMinSalary() { return minSalary; }
+    public double getMaxSalary() { return maxSalary; }
+    public double getMeanSalary() { return employeeCount == 0 ? 0.0 : totalPayroll / employeeCount; }
+    public Map<String, Double> getTotalsByDepartment() { return totalsByDepartment; }
+    public Map<String, Double> getTotalsByType() { return totalsByType; }
+    public Map<String, Integer> getHeadcountByType() { return headcountByType; }
+
+    /**
+     * Gets a salary percentile using the nearest-rank method.
+     * @param percentile A value between 0 and 100
+     * @return The smallest salary that at least that percentage of employees earn at most, or 0 for an empty roster
+     */
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (employeeCount == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * employeeCount);
+        return sortedSalaries[Math.max(0, rank - 1)];
+    }
+
+    public double getMedianSalary() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Employees: %d%n", employeeCount));
+        sb.append(String.format("Total Payroll: $%.2f%n", totalPayroll));
+        sb.append(String.format("Min: $%.2f, Max: $%.2f, Mean: $%.2f%n", minSalary, maxSalary, getMeanSalary()));
+        sb.append(String.format("Median: $%.2f, 90th Percentile: $%.2f, 99th Percentile: $%.2f%n",
+                getMedianSalary(), getPercentile(90), getPercentile(99)));
+        sb.append(String.format("%nBy Department:%n"));
+        for (Map.Entry<String, Double> entry : totalsByDepartment.entrySet()) {
+            sb.append(String.format("  %-20s $%.2f%n", entry.getKey(), entry.getValue()));
+        }
+        sb.append(String.format("%nBy Type:%n"));
+        for (Map.Entry<String, Double> entry : totalsByType.entrySet()) {
+            sb.append(String.format("  %-20s $%.2f (%d employees)%n",
+                    entry.getKey(), entry.getValue(), headcountByType.get(entry.getKey())));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import models.Employee;
+import models.PerformanceRating;
+
+/**
+ * A bitmap index from performance rating to employees. Each employee holds a dense slot
+ * number, and each rating has a bitset with a bit set for the slots of employees with
+ * that rating, so "rated at least 4" is the union of two bitsets rather than a scan.
+ * Slots freed by removals are reused, which keeps the bitsets as small as the roster.
+ */
+class RatingIndex {
+    private static final PerformanceRating[] RATINGS = PerformanceRating.values();
+
+    private final BitSet[] byRating = new BitSet[RATINGS.length];
+    private final BitSet freeSlots = new BitSet();
+    private final Map<Employee, Integer> slots = new IdentityHashMap<>();
+    // Remembers the rating each slot was indexed under, so it can be cleared after the employee changes
+    private final List<PerformanceRating> indexedRatings = new ArrayList<>();
+    private final List<Employee> employeesBySlot = new ArrayList<>();
+
+    RatingIndex() {
+        for (int i = 0; i < byRating.length; i++) {
+            byRating[i] = new BitSet();
+        }
+    }
+
+    void add(Employee employee) {
+        if (slots.containsKey(employee)) {
+            update(employee);
+            return;
+        }
+        int slot = freeSlots.nextSetBit(0);
+        if (slot < 0) {
+            slot = employeesBySlot.size();
+            employeesBySlot.add(employee);
+            indexedRatings.add(employee.getPerformanceRating());
+        } else {
+            freeSlots.clear(slot);
+            employeesBySlot.set(slot, employee);
+            indexedRatings.set(slot, employee.getPerformanceRating());
+        }
+        slots.put(employee, slot);
+        byRating[employee.getPerformanceRating().ordinal()].set(slot);
+    }
+
+    void remove(Employee employee) {
+        Integer slot = slots.remove(employee);
+        if (slot == null) {
+            return;
+        }
+        byRating[indexedRatings.get(slot).ordinal()].clear(slot);
+        employeesBySlot.set(slot, null);
+        indexedRatings.set(slot, null);
+        freeSlots.set(slot);
+    }
+
+    void update(Employee employee) {
+        Integer slot = slots.get(employee);
+        if (slot == null) {
+            add(employee);
+            return;
+        }
+        PerformanceRating oldRating = indexedRatings.get(slot);
+        PerformanceRating newRating = employee.getPerformanceRating();
+        if (oldRating != newRating) {
+            byRating[oldRating.ordinal()].clear(slot);
+            byRating[newRating.ordinal()].set(slot);
+            indexedRatings.set(slot, newRating);
+        }
+    }
+
+    void clear() {
+        for (BitSet bits : byRating) {
+            bits.clear();
+        }
+        freeSlots.clear();
+        slots.clear();
+        indexedRatings.clear();
+        employeesBySlot.clear();
+    }
+
+    /**
+     * Finds the employees rated at least the given rating. Unrated employees are only
+     * included when the minimum is NOT_RATED.
+     * @param minimum The lowest rating to include
+     * @return The matching employees, in slot order
+     */
+    List<Employee> findAtLeast(PerformanceRating minimum) {
+        return collect(atLeast(minimum));
+    }
+
+    int countAtLeast(PerformanceRating minimum) {
+        return atLeast(minimum).cardinality();
+    }
+
+    List<Employee> find(PerformanceRating rating) {
+        return collect(byRating[rating.ordinal()]);
+    }
+
+    private BitSet atLeast(PerformanceRating minimum) {
+        BitSet result = new BitSet();
+        for (int i = minimum.ordinal(); i < byRating.length; i++) {
+            result.or(byRating[i]);
+        }
+        return result;
+    }
+
+    private List<Employee> collect(BitSet bits) {
+        List<Employee> result = new ArrayList<>(bits.cardinality());
+        for (int slot = bits.nextSetBit(0); slot >= 0; slot = bits.nextSetBit(slot + 1)) {
+            result.add(employeesBySlot.get(slot));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import models.Employee;
+import service.EmployeeService.SortCriteria;
+
+/**
+ * Keeps the employees ordered by one sort criterion in a balanced tree, updated one
+ * employee at a time. Ties are broken by ID, so every employee has a unique position.
+ */
+class SortedView {
+    private final SortCriteria criteria;
+    private final TreeMap<SortKey, Employee> tree;
+    // Remembers the key each employee was inserted under, so it can be found again after the employee changes
+    private final Map<Employee, SortKey> indexedKeys = new IdentityHashMap<>();
+    // Read-only copy of the tree's order, rebuilt on the next read after a change.
+    // Several readers may ask for it at once, so it is only rebuilt while holding this view's monitor
+    private List<Employee> ordered;
+
+    SortedView(SortCriteria criteria, List<Employee> employees) {
+        this.criteria = criteria;
+        this.tree = new TreeMap<>(comparatorFor(criteria));
+        for (Employee emp : employees) {
+            add(emp);
+        }
+    }
+
+    void add(Employee employee) {
+        SortKey key = new SortKey(criteria, employee);
+        indexedKeys.put(employee, key);
+        tree.put(key, employee);
+        ordered = null;
+    }
+
+    void remove(Employee employee) {
+        SortKey key = indexedKeys.remove(employee);
+        if (key != null) {
+            tree.remove(key);
+            ordered = null;
+        }
+    }
+
+    void update(Employee employee) {
+        SortKey oldKey = indexedKeys.get(employee);
+        SortKey newKey = new SortKey(criteria, employee);
+        if (oldKey != null && tree.comparator().compare(oldKey, newKey) == 0) {
+            return; // Its position hasn't changed
+        }
+        remove(employee);
+        add(employee);
+    }
+
+    /**
+     * Gets the employees in this view's order. The list is shared until the next change,
+     * so repeated reads cost nothing and a read after a change is a single in-order walk.
+     * @return A read-only list of the employees in order
+     */
+    synchronized List<Employee> asList() {
+        if (ordered == null) {
+            ordered = Collections.unmodifiableList(new ArrayList<>(tree.values()));
+        }
+        return ordered;
+    }
+
+    private static Comparator<SortKey> comparatorFor(SortCriteria criteria) {
+        Comparator<SortKey> byId = Comparator.comparingLong((SortKey k) -> k.idKey)
+                .thenComparing(k -> k.id, Comparator.nullsFirst(Comparator.naturalOrder()));
+        switch (criteria) {
+            case BY_SALARY:
+                // Highest salary first
+                return Comparator.comparingDouble((SortKey k) -> -k.number).thenComparing(byId);
+            case BY_PERFORMANCE_RATING:
+                // Rating order, lowest first
+                return Comparator.comparingDouble((SortKey k) -> k.number).thenComparing(byId);
+            case BY_NAME:
+            case BY_DEPARTMENT:
+                return Comparator.comparing((SortKey k) -> k.text, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(byId);
+            default:
+                return byId;
+        }
+    }
+
+    /**
+     * The values an employee is sorted on, captured when it was inserted.
+     */
+    private static class SortKey {
+        private final String text;
+        private final double number;
+        private final long idKey;
+        private final String id;
+
+        SortKey(SortCriteria criteria, Employee employee) {
+            this.idKey = employee.getIdKey();
+            this.id = employee.getId();
+            switch (criteria) {
+                case BY_NAME:
+                    this.text = employee.getName();
+                    this.number = 0;
+                    break;
+                case BY_DEPARTMENT:
+                    this.text = employee.getDepartment();
+                    this.number = 0;
+                    break;
+                case BY_PERFORMANCE_RATING:
+                    this.text = null;
+                    this.number = employee.getPerformanceRating().ordinal();
+                    break;
+                case BY_SALARY:
+                    this.text = null;
+                    this.number = employee.calculateSalary();
+                    break;
+                default:
+                    this.text = null;
+                    this.number = 0;
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import models.Employee;
+
+/**
+ * A case-insensitive index over one text attribute of an employee (such as the name).
+ * Keys are kept in a sorted map so prefix queries are a range lookup. For substring
+ * queries every three-character run (trigram) of every key is indexed; a query of three
+ * or more characters only checks the employees that have all of its trigrams, and a
+ * shorter query scans the distinct keys. Each key costs one index entry per character,
+ * where indexing every suffix would cost memory quadratic in its length.
+ * An index built without trigrams, for attributes that are normally searched by prefix,
+ * answers substring queries by scanning the distinct keys instead.
+ */
+class TextIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Function<Employee, String> attribute;
+    private final boolean indexSubstrings;
+    private final TreeMap<String, Set<Employee>> keys = new TreeMap<>();
+    // Packed trigram to the employees whose key contains it
+    private final Map<Long, Set<Employee>> trigrams = new HashMap<>();
+    // Remembers the key each employee was indexed under, so it can be removed after the employee changes
+    private final Map<Employee, String> indexedKeys = new IdentityHashMap<>();
+
+    TextIndex(Function<Employee, String> attribute) {
+        this(attribute, true);
+    }
+
+    TextIndex(Function<Employee, String> attribute, boolean indexSubstrings) {
+        this.attribute = attribute;
+        this.indexSubstrings = indexSubstrings;
+    }
+
+    static String fold(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    void add(Employee employee) {
+        String key = fold(attribute.apply(employee));
+        indexedKeys.put(employee, key);
+        keys.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(employee);
+        for (int i = 0; indexSubstrings && i + GRAM_LENGTH <= key.length(); i++) {
+            trigrams.computeIfAbsent(trigram(key, i), k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(employee);
+        }
+    }
+
+    void remove(Employee employee) {
+        String key = indexedKeys.remove(employee);
+        if (key == null) {
+            return;
+        }
+        removeFrom(keys, key, employee);
+        for (int i = 0; indexSubstrings && i + GRAM_LENGTH <= key.length(); i++) {
+            removeFrom(trigrams, trigram(key, i), employee);
+        }
+    }
+
+    /**
+     * Re-indexes an employee whose attribute may have changed since it was added.
+     * @param employee The employee to re-index
+     */
+    void update(Employee employee) {
+        String oldKey = indexedKeys.get(employee);
+        if (oldKey != null && oldKey.equals(fold(attribute.apply(employee)))) {
+            return; // Nothing changed
+        }
+        remove(employee);
+        add(employee);
+    }
+
+    void clear() {
+        keys.clear();
+        trigrams.clear();
+        indexedKeys.clear();
+    }
+
+    /**
+     * Finds all employees whose attribute starts with the given text, ignoring case.
+     * @param prefix The text to match
+     * @return The matching employees, ordered by the indexed attribute
+     */
+    List<Employee> findByPrefix(String prefix) {
+        List<Employee> result = new ArrayList<>();
+        for (Set<Employee> matches : range(keys, fold(prefix)).values()) {
+            result.addAll(matches);
+        }
+        return result;
+    }
+
+    /**
+     * Finds all employees whose attribute contains the given text, ignoring case.
+     * @param text The text to match
+     * @return The matching employees, ordered by the indexed attribute
+     */
+    List<Employee> findBySubstring(String text) {
+        String folded = fold(text);
+        List<Employee> result = new ArrayList<>();
+        if (!indexSubstrings || folded.length() < GRAM_LENGTH) {
+            for (Map.Entry<String, Set<Employee>> entry : keys.entrySet()) {
+                if (entry.getKey().contains(folded)) {
+                    result.addAll(entry.getValue());
+                }
+            }
+            return result;
+        }
+
+        // Start from the rarest trigram; every match must be in all of their sets
+        Set<Employee> rarest = null;
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            Set<Employee> bucket = trigrams.get(trigram(folded, i));
+            if (bucket == null) {
+                return result;
+            }
+            if (rarest == null || bucket.size() < rarest.size()) {
+                rarest = bucket;
+            }
+        }
+        // Having every trigram does not mean they are in the right order, so check each key
+        TreeSet<String> matchingKeys = new TreeSet<>();
+        for (Employee candidate : rarest) {
+            String key = indexedKeys.get(candidate);
+            if (key.contains(folded)) {
+                matchingKeys.add(key);
+            }
+        }
+        for (String key : matchingKeys) {
+            result.addAll(keys.get(key));
+        }
+        return result;
+    }
+
+    private static Map<String, Set<Employee>> range(TreeMap<String, Set<Employee>> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Employee>> map, K key, Employee employee) {
+        Collection<Employee> bucket = map.get(key);
+        if (bucket != null) {
+            bucket.remove(employee);
+            if (bucket.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.ExecutionException;
 import models.*;
 import service.EmployeeService;
 
@@ -13,6 +14,7 @@ public class AddEmployeeDialog extends JDialog {
     private JTextField bonusField, subordinatesField;
     private JLabel bonusLabel, subordinatesLabel;
     private JPanel specificFieldsPanel;
+    private JButton saveButton;
 
     public AddEmployeeDialog(Frame owner, EmployeeService employeeService) {
         super(owner, "Add New Employee", true);
@@ -55,7 +57,7 @@ public class AddEmployeeDialog extends JDialog {
 
         // Buttons panel
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        JButton saveButton = new JButton("Save");
+        saveButton = new JButton("Save");
         JButton cancelButton = new JButton("Cancel");
         buttonPanel.add(saveButton);
         buttonPanel.add(cancelButton);
@@ -129,9 +131,7 @@ public class AddEmployeeDialog extends JDialog {
             }
 
             if (emp != null) {
-                employeeService.addEmployee(emp);
-                JOptionPane.showMessageDialog(this, "Employee added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                setVisible(false);
+                addInBackground(emp);
             }
 
         } catch (NumberFormatException e) {
@@ -140,4 +140,33 @@ public class AddEmployeeDialog extends JDialog {
             JOptionPane.showMessageDialog(this, "An error occurred: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    /**
+     * Adds the employee on a worker thread, since adding writes to the data file's journal,
+     * and closes the dialog once it has been saved.
+     */
+    private void addInBackground(Employee emp) {
+        saveButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                employeeService.addEmployee(emp);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                saveButton.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(AddEmployeeDialog.this, "Employee added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    setVisible(false);
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(AddEmployeeDialog.this, "An error occurred: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
 }
@@ -0,0 +1,76 @@
+package ui;
+
+import javax.swing.Timer;
+
+/**
+ * Measures how responsive the event dispatch thread is. A Swing timer asks to run at a
+ * fixed interval; whenever it runs late, the delay is time the window could not react to
+ * input or repaint, so the worst delay seen is a direct measure of a UI freeze.
+ */
+public class EdtLatencyProbe {
+    private final Timer timer;
+    private final int intervalMillis;
+    private long lastTickNanos;
+    private volatile long lastLatencyMillis;
+    private volatile long maxLatencyMillis;
+
+    /**
+     * @param intervalMillis How often to check, in milliseconds
+     */
+    public EdtLatencyProbe(int intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.intervalMillis = intervalMillis;
+        this.timer = new Timer(intervalMillis, e -> tick());
+        this.timer.setCoalesce(true); // one late tick, not a burst of them, after a freeze
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        long latency = Math.max(0, (now - lastTickNanos) / 1_000_000 - intervalMillis);
+        lastTickNanos = now;
+        lastLatencyMillis = latency;
+        if (latency > maxLatencyMillis) {
+            maxLatencyMillis = latency;
+        }
+    }
+
+    /**
+     * Starts measuring. Must be called on the event dispatch thread.
+     */
+    public void start() {
+        lastTickNanos = System.nanoTime();
+        timer.start();
+    }
+
+    /**
+     * Stops measuring. Must be called on the event dispatch thread.
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    /**
+     * Gets how late the most recent check ran.
+     * @return The delay in milliseconds
+     */
+    public long getLastLatencyMillis() {
+        return lastLatencyMillis;
+    }
+
+    /**
+     * Gets the longest delay seen since the probe started or was last reset.
+     * @return The delay in milliseconds
+     */
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    /**
+     * Forgets the longest delay seen so far, e.g. to report it per period.
+     */
+    public void reset() {
+        maxLatencyMillis = 0;
+    }
+}
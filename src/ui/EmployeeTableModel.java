@@ -0,0 +1,186 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import models.Employee;
+import models.Intern;
+import models.Manager;
+
+/**
+ * Table model that shows a list of employees without copying it. Cells are formatted only
+ * when the table asks for them, which it does just for the rows on screen, so showing a
+ * large roster costs no more than showing a small one.
+ *
+ * The model holds on to the list it is given, so callers should pass an immutable view such
+ * as the service's snapshot or a sorted view, and hand over a new one after every change.
+ * The {@code employeeAdded}, {@code employeeUpdated} and {@code employeeRemoved} methods
+ * fire events for just the rows that changed, so the table keeps its selection and scroll
+ * position instead of being rebuilt. If the new list is not the old one with just that
+ * change, they fall back to refreshing the whole table.
+ */
+public class EmployeeTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    static final String[] COLUMN_NAMES = {"ID", "Name", "Department", "Base Salary", "Performance", "Bonus", "Fine", "Total Salary", "Type", "Special Info"};
+
+    private List<Employee> employees = Collections.emptyList();
+    // Set once appendEmployees has copied the rows into a list the model owns
+    private boolean ownsList;
+
+    /**
+     * Replaces every row of the table.
+     * @param employees The employees to show, in display order
+     */
+    public void setEmployees(List<Employee> employees) {
+        this.employees = employees;
+        this.ownsList = false;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Adds rows to the end of the table, e.g. while a file is still being loaded.
+     * @param rows The employees to add, in display order
+     */
+    public void appendEmployees(List<Employee> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (!ownsList) {
+            employees = new ArrayList<>(employees);
+            ownsList = true;
+        }
+        int first = employees.size();
+        employees.addAll(rows);
+        fireTableRowsInserted(first, employees.size() - 1);
+    }
+
+    /**
+     * Shows a list that has one employee more than the current one.
+     * @param employees The new list, in display order
+     * @param employee The employee that was added
+     */
+    public void employeeAdded(List<Employee> employees, Employee employee) {
+        int oldSize = this.employees.size();
+        this.employees = employees;
+        this.ownsList = false;
+        int row = indexOf(employee.getId());
+        if (row < 0 || employees.size() != oldSize + 1) {
+            fireTableDataChanged();
+        } else {
+            fireTableRowsInserted(row, row);
+        }
+    }
+
+    /**
+     * Shows a list in which one employee's details changed. If the change moved the employee
+     * to another position, every row between the old and new positions is repainted.
+     * @param employees The new list, in display order
+     * @param employee The employee that was updated
+     */
+    public void employeeUpdated(List<Employee> employees, Employee employee) {
+        int oldSize = this.employees.size();
+        int oldRow = indexOf(employee.getId());
+        this.employees = employees;
+        this.ownsList = false;
+        int newRow = indexOf(employee.getId());
+        if (oldRow < 0 || newRow < 0 || employees.size() != oldSize) {
+            fireTableDataChanged();
+        } else {
+            fireTableRowsUpdated(Math.min(oldRow, newRow), Math.max(oldRow, newRow));
+        }
+    }
+
+    /**
+     * Shows a list that no longer has the given employee.
+     * @param employees The new list, in display order
+     * @param employeeId The ID of the employee that was removed
+     */
+    public void employeeRemoved(List<Employee> employees, String employeeId) {
+        int oldSize = this.employees.size();
+        int row = indexOf(employeeId);
+        this.employees = employees;
+        this.ownsList = false;
+        if (row < 0 || employees.size() != oldSize - 1) {
+            fireTableDataChanged();
+        } else {
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    /**
+     * Gets the employee shown in a row.
+     * @param row The row index in the model
+     * @return The employee in that row
+     */
+    public Employee getEmployeeAt(int row) {
+        return employees.get(row);
+    }
+
+    /**
+     * Finds the row showing an employee.
+     * @param employeeId The employee's ID
+     * @return The row index, or -1 if the employee is not shown
+     */
+    public int indexOf(String employeeId) {
+        int row = 0;
+        // Walk with an iterator: the snapshot's get(int) is a tree lookup
+        for (Iterator<Employee> it = employees.iterator(); it.hasNext(); row++) {
+            if (it.next().getId().equals(employeeId)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return employees.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Employee emp = employees.get(row);
+        switch (column) {
+            case 0: return emp.getId();
+            case 1: return emp.getName();
+            case 2: return emp.getDepartment();
+            case 3: return String.format("%.2f", emp.getBaseSalary());
+            case 4: return emp.getPerformanceRating().getLabel();
+            case 5: return String.format("%.2f", emp.getBonus());
+            case 6: return String.format("%.2f", emp.getFine());
+            case 7: return String.format("%.2f", emp.calculateSalary());
+            case 8: return emp.getClass().getSimpleName();
+            case 9: return specialInfo(emp);
+            default: throw new IllegalArgumentException("Invalid column: " + column);
+        }
+    }
+
+    private static String specialInfo(Employee emp) {
+        if (emp instanceof Manager) {
+            return "Subordinates: " + ((Manager) emp).getSubordinatesManaged();
+        } else if (emp instanceof Intern) {
+            return "Intern";
+        }
+        return "Regular";
+    }
+}
@@ -1,25 +1,43 @@
 package ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 import models.Employee;
 import models.Manager;
 import models.Intern;
+import models.PerformanceRating;
+import service.EmployeeChange;
 import service.EmployeeService;
+import service.LoadMonitor;
 
 public class GraphicalUI extends JFrame {
 
     private final EmployeeService employeeService;
     private JTable employeeTable;
-    private DefaultTableModel tableModel;
+    private EmployeeTableModel tableModel;
     private CardLayout cardLayout;
+    private EmployeeService.SortCriteria currentSort; // null keeps the stored order
+    private boolean showingSearchResults; // the table shows a search, not the whole roster
     private JPanel cardPanel;
+    // Controls that change or reload the roster; disabled while a background task runs
+    private final List<JComponent> rosterControls = new ArrayList<>();
+    private JLabel statusLabel;
+    private JProgressBar progressBar;
+    private JButton cancelButton;
+    private SwingWorker<?, ?> currentTask;
+    private LiveSearch liveSearch;
+    private final EdtLatencyProbe latencyProbe = new EdtLatencyProbe(50);
 
     private static final String WELCOME_PANEL = "WelcomePanel";
     private static final String MAIN_PANEL = "MainPanel";
@@ -31,9 +49,17 @@ public class GraphicalUI extends JFrame {
         setTitle("Employee Management System");
         setSize(1200, 700);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                employeeService.close();
+            }
+        });
         setLocationRelativeTo(null);
         
         initComponents();
+        latencyProbe.start();
+        employeeService.addChangeListener(changes -> SwingUtilities.invokeLater(() -> applyChanges(changes)));
         
         // Show welcome panel first
         cardLayout.show(cardPanel, WELCOME_PANEL);
@@ -87,8 +113,7 @@ public class GraphicalUI extends JFrame {
         mainPanel.setBackground(new Color(248, 249, 250)); // Light gray background
 
         // Table setup
-        String[] columnNames = {"ID", "Name", "Department", "Base Salary", "Performance", "Bonus", "Fine", "Total Salary", "Type", "Special Info"};
-        tableModel = new DefaultTableModel(columnNames, 0);
+        tableModel = new EmployeeTableModel();
         employeeTable = new JTable(tableModel);
         
         // Set column widths for better display
@@ -125,11 +150,13 @@ public class GraphicalUI extends JFrame {
         RoundedButton addButton = new RoundedButton("Add");
         RoundedButton updateButton = new RoundedButton("Update");
         RoundedButton deleteButton = new RoundedButton("Delete");
+        RoundedButton payrollButton = new RoundedButton("Payroll");
         
         controlPanel.add(loadButton);
         controlPanel.add(addButton);
         controlPanel.add(updateButton);
         controlPanel.add(deleteButton);
+        controlPanel.add(payrollButton);
 
         // Search panel
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
@@ -137,7 +164,8 @@ public class GraphicalUI extends JFrame {
         searchPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
         RoundedTextField searchField = new RoundedTextField(20);
-        RoundedButton searchButton = new RoundedButton("Search by Name");
+        RoundedButton searchButton = new RoundedButton("Search");
+        searchField.setToolTipText("Searches names, ID prefixes and departments as you type");
         JLabel searchLabel = new JLabel("Search:");
         searchLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
         
@@ -165,9 +193,36 @@ public class GraphicalUI extends JFrame {
         topPanel.add(sortPanel, BorderLayout.CENTER);
         topPanel.add(searchPanel, BorderLayout.EAST);
 
+        // Status bar showing background tasks and how responsive the window is
+        JPanel statusPanel = new JPanel(new BorderLayout(10, 0));
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(0, 10, 5, 10));
+        statusLabel = new JLabel(" ");
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setVisible(false);
+        cancelButton = new JButton("Cancel");
+        cancelButton.setVisible(false);
+        cancelButton.addActionListener(e -> {
+            if (currentTask != null) {
+                currentTask.cancel(false);
+            }
+        });
+        JLabel latencyLabel = new JLabel();
+        // Show the worst delay of the event dispatch thread over each second
+        new Timer(1000, e -> {
+            latencyLabel.setText("UI lag: " + latencyProbe.getMaxLatencyMillis() + " ms");
+            latencyProbe.reset();
+        }).start();
+        JPanel taskPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        taskPanel.add(progressBar);
+        taskPanel.add(cancelButton);
+        taskPanel.add(latencyLabel);
+        statusPanel.add(statusLabel, BorderLayout.CENTER);
+        statusPanel.add(taskPanel, BorderLayout.EAST);
+
         // Add components to main panel
         mainPanel.add(topPanel, BorderLayout.NORTH);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
+        mainPanel.add(statusPanel, BorderLayout.SOUTH);
 
         // Add panels to card layout
         cardPanel.add(welcomePanel, WELCOME_PANEL);
@@ -176,81 +231,213 @@ public class GraphicalUI extends JFrame {
         // Add card panel to frame
         add(cardPanel);
 
+        Collections.addAll(rosterControls, loadButton, addButton, updateButton, deleteButton, searchButton, payrollButton, sortComboBox);
+
         // Add Action Listeners
         loadButton.addActionListener(e -> loadEmployeeData());
         addButton.addActionListener(e -> showAddEmployeeDialog());
         updateButton.addActionListener(e -> updateEmployee());
         deleteButton.addActionListener(e -> deleteEmployee());
-        searchButton.addActionListener(e -> searchEmployee(searchField.getText()));
+        payrollButton.addActionListener(e -> showPayrollReport());
+        liveSearch = new LiveSearch(searchField, employeeService, this::showSearchResults, this::clearSearchResults);
+        searchButton.addActionListener(e -> liveSearch.searchNow());
         sortComboBox.addActionListener(e -> {
             String selection = (String) sortComboBox.getSelectedItem();
             if (selection == null) return;
             
             switch (selection) {
                 case "ID":
-                    employeeService.sortEmployees(EmployeeService.SortCriteria.BY_ID);
+                    currentSort = EmployeeService.SortCriteria.BY_ID;
                     break;
                 case "Name":
-                    employeeService.sortEmployees(EmployeeService.SortCriteria.BY_NAME);
+                    currentSort = EmployeeService.SortCriteria.BY_NAME;
                     break;
                 case "Department":
-                    employeeService.sortEmployees(EmployeeService.SortCriteria.BY_DEPARTMENT);
+                    currentSort = EmployeeService.SortCriteria.BY_DEPARTMENT;
                     break;
                 case "Salary (Desc)":
-                    employeeService.sortEmployees(EmployeeService.SortCriteria.BY_SALARY);
+                    currentSort = EmployeeService.SortCriteria.BY_SALARY;
                     break;
                 case "Performance":
-                    employeeService.sortEmployees(EmployeeService.SortCriteria.BY_PERFORMANCE_RATING);
+                    currentSort = EmployeeService.SortCriteria.BY_PERFORMANCE_RATING;
                     break;
                 default:
-                    // "Default" will reload the original order from the file
-                    employeeService.loadEmployeesFromFile("employee_data.csv");
+                    // "Default" shows employees in the order they are stored in
+                    currentSort = null;
                     break;
             }
-            refreshTable(employeeService.getEmployees());
+            refreshTable(displayedEmployees());
         });
     }
 
+    /**
+     * Gets all employees in the order currently selected in the sort box.
+     */
+    private List<Employee> displayedEmployees() {
+        return currentSort == null ? employeeService.getEmployees() : employeeService.getSortedEmployees(currentSort);
+    }
+
     private void showAddEmployeeDialog() {
         AddEmployeeDialog dialog = new AddEmployeeDialog(this, employeeService);
-        dialog.setVisible(true);
-        // After the dialog is closed, refresh the table to show the new employee
-        refreshTable(employeeService.getEmployees());
+        dialog.setVisible(true); // The table picks up the new employee from the change event
+    }
+
+    /**
+     * Brings the table up to date with a batch of changes from the service. A single change
+     * touches only its own rows; anything larger redraws the table from the current roster,
+     * which costs no more than a repaint. Search results are refreshed by searching again.
+     */
+    private void applyChanges(List<EmployeeChange> changes) {
+        if (currentTask instanceof LoadWorker) {
+            return; // The load shows its own rows and refreshes the table when it finishes
+        }
+        if (showingSearchResults) {
+            liveSearch.searchNow(); // The results shown may no longer match
+            return;
+        }
+        EmployeeChange change = changes.get(0);
+        if (changes.size() > 1 || change.getType() == EmployeeChange.Type.RELOADED) {
+            refreshTable(displayedEmployees());
+            return;
+        }
+        switch (change.getType()) {
+            case ADDED:
+                tableModel.employeeAdded(displayedEmployees(), change.getEmployee());
+                break;
+            case UPDATED:
+                tableModel.employeeUpdated(displayedEmployees(), change.getEmployee());
+                break;
+            case REMOVED:
+                tableModel.employeeRemoved(displayedEmployees(), change.getEmployeeId());
+                break;
+            default:
+                break;
+        }
     }
 
     private void refreshTable(List<Employee> employees) {
-        tableModel.setRowCount(0); // Clear existing data
-        for (Employee emp : employees) {
-            Vector<Object> row = new Vector<>();
-            row.add(emp.getId());
-            row.add(emp.getName());
-            row.add(emp.getDepartment());
-            row.add(String.format("%.2f", emp.getBaseSalary()));
-            row.add(emp.getPerformanceRating());
-            row.add(String.format("%.2f", emp.getBonus()));
-            row.add(String.format("%.2f", emp.getFine()));
-            row.add(String.format("%.2f", emp.calculateSalary()));
-            row.add(emp.getClass().getSimpleName());
-            
-            // Add special information based on employee type
-            String specialInfo = "";
-            if (emp instanceof Manager) {
-                Manager manager = (Manager) emp;
-                specialInfo = "Subordinates: " + manager.getSubordinatesManaged();
-            } else if (emp instanceof Intern) {
-                specialInfo = "Intern";
-            } else {
-                specialInfo = "Regular";
+        showingSearchResults = false;
+        tableModel.setEmployees(employees);
+    }
+
+    private void loadEmployeeData() {
+        LoadWorker worker = new LoadWorker("employee_data.csv");
+        refreshTable(Collections.emptyList()); // Rows are shown as they are read
+        startTask(worker, "Loading employees...", true);
+        worker.execute();
+    }
+
+    /**
+     * Loads the data file on a worker thread, adding rows to the table batch by batch so
+     * the first employees appear at once and the window stays responsive however large
+     * the file is. Cancelling leaves the roster as it was before the load.
+     */
+    private class LoadWorker extends SwingWorker<Boolean, List<Employee>> implements LoadMonitor {
+        private final String filePath;
+        private int rowsShown;
+
+        LoadWorker(String filePath) {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected Boolean doInBackground() {
+            return employeeService.loadEmployeesFromFile(filePath, this);
+        }
+
+        @Override
+        public void rowsLoaded(List<Employee> rows, long bytesRead, long totalBytes) {
+            publish(rows);
+            if (totalBytes > 0) {
+                setProgress((int) Math.min(100, bytesRead * 100 / totalBytes));
+            }
+        }
+
+        @Override
+        protected void process(List<List<Employee>> batches) {
+            if (isCancelled()) {
+                return;
+            }
+            for (List<Employee> rows : batches) {
+                tableModel.appendEmployees(rows);
+                rowsShown += rows.size();
+            }
+            statusLabel.setText(String.format("Loading employees... %,d read", rowsShown));
+        }
+
+        @Override
+        protected void done() {
+            finishTask();
+            refreshTable(displayedEmployees());
+            if (isCancelled()) {
+                statusLabel.setText("Load cancelled.");
+                return;
+            }
+            try {
+                get();
+                statusLabel.setText(String.format("Loaded %,d employees.", employeeService.getSnapshot().size()));
+            } catch (ExecutionException e) {
+                statusLabel.setText(" ");
+                JOptionPane.showMessageDialog(GraphicalUI.this, "Error loading employees: " + e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            row.add(specialInfo);
-            
-            tableModel.addRow(row);
         }
     }
 
-    private void loadEmployeeData() {
-        employeeService.loadEmployeesFromFile("employee_data.csv");
-        refreshTable(employeeService.getEmployees());
+    /**
+     * Runs a task on a worker thread, such as a change to the roster, which is written to the
+     * data file, or a report over all of it, then hands its result to onSuccess on the event
+     * dispatch thread.
+     */
+    private <T> void runInBackground(String message, Callable<T> task, Consumer<T> onSuccess) {
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                finishTask();
+                statusLabel.setText(" ");
+                try {
+                    onSuccess.accept(get());
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(GraphicalUI.this, e.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        startTask(worker, message, false);
+        worker.execute();
+    }
+
+    private void startTask(SwingWorker<?, ?> worker, String message, boolean cancellable) {
+        currentTask = worker;
+        for (JComponent control : rosterControls) {
+            control.setEnabled(false);
+        }
+        statusLabel.setText(message);
+        progressBar.setValue(0);
+        progressBar.setIndeterminate(!cancellable);
+        progressBar.setVisible(true);
+        cancelButton.setVisible(cancellable);
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                progressBar.setValue((Integer) e.getNewValue());
+            }
+        });
+    }
+
+    private void finishTask() {
+        currentTask = null;
+        for (JComponent control : rosterControls) {
+            control.setEnabled(true);
+        }
+        progressBar.setVisible(false);
+        cancelButton.setVisible(false);
     }
 
     private void addEmployee() {
@@ -266,7 +453,7 @@ public class GraphicalUI extends JFrame {
             return;
         }
 
-        String employeeId = (String) tableModel.getValueAt(selectedRow, 0);
+        String employeeId = tableModel.getEmployeeAt(employeeTable.convertRowIndexToModel(selectedRow)).getId();
         employeeService.findEmployeeById(employeeId).ifPresent(employee -> {
             showUpdateEmployeeDialog(employee);
         });
@@ -288,7 +475,7 @@ public class GraphicalUI extends JFrame {
         RoundedTextField nameField = new RoundedTextField(employee.getName(), 20);
         RoundedTextField departmentField = new RoundedTextField(employee.getDepartment(), 20);
         RoundedTextField baseSalaryField = new RoundedTextField(String.valueOf(employee.getBaseSalary()), 20);
-        RoundedTextField performanceField = new RoundedTextField(employee.getPerformanceRating(), 20);
+        RoundedTextField performanceField = new RoundedTextField(employee.getPerformanceRating().getCode(), 20);
         RoundedTextField bonusField = new RoundedTextField(String.valueOf(employee.getBonus()), 20);
         RoundedTextField fineField = new RoundedTextField(String.valueOf(employee.getFine()), 20);
         
@@ -345,64 +532,52 @@ public class GraphicalUI extends JFrame {
 
         saveButton.addActionListener(e -> {
             try {
-                // Update basic fields
+                // Parse and check every field first, so a bad value leaves the employee untouched
                 String newName = nameField.getText().trim();
-                if (!newName.isEmpty()) {
-                    employee.setName(newName);
-                }
-
                 String newDept = departmentField.getText().trim();
-                if (!newDept.isEmpty()) {
-                    employee.setDepartment(newDept);
-                }
-
                 double newBaseSalary = Double.parseDouble(baseSalaryField.getText().trim());
-                employee.setBaseSalary(newBaseSalary);
-
-                String newPerformance = performanceField.getText().trim();
-                if (!newPerformance.isEmpty()) {
-                    employee.setPerformanceRating(newPerformance);
+                if (newBaseSalary < 0) {
+                    throw new IllegalArgumentException("Salary cannot be negative");
                 }
-
-                // Reset and set new bonus/fine values
-                double currentBonus = employee.getBonus();
-                double currentFine = employee.getFine();
-                
+                String performanceText = performanceField.getText().trim();
+                PerformanceRating newRating = performanceText.isEmpty()
+                        ? employee.getPerformanceRating() : PerformanceRating.parse(performanceText);
                 double newBonus = Double.parseDouble(bonusField.getText().trim());
-                double newFine = Double.parseDouble(fineField.getText().trim());
-                
-                // Adjust bonus and fine by the difference
-                if (newBonus != currentBonus) {
-                    if (newBonus > currentBonus) {
-                        employee.addBonus(newBonus - currentBonus);
-                    } else {
-                        // For reducing bonus, we'd need a method to set it directly
-                        // For now, let's create a simple workaround
-                        setEmployeeBonus(employee, newBonus);
-                    }
+                if (newBonus < 0) {
+                    throw new IllegalArgumentException("Bonus cannot be negative");
                 }
-                
-                if (newFine != currentFine) {
-                    if (newFine > currentFine) {
-                        employee.addFine(newFine - currentFine);
-                    } else {
-                        setEmployeeFine(employee, newFine);
-                    }
+                double newFine = Double.parseDouble(fineField.getText().trim());
+                if (newFine < 0) {
+                    throw new IllegalArgumentException("Fine cannot be negative");
                 }
-
-                // Update Manager-specific field
-                if (employee instanceof Manager && subordinatesField.isEnabled()) {
-                    int newSubordinates = Integer.parseInt(subordinatesField.getText().trim());
-                    ((Manager) employee).setSubordinatesManaged(newSubordinates);
+                boolean updateSubordinates = employee instanceof Manager && subordinatesField.isEnabled();
+                int newSubordinates = updateSubordinates ? Integer.parseInt(subordinatesField.getText().trim()) : 0;
+                if (newSubordinates < 0) {
+                    throw new IllegalArgumentException("Number of subordinates cannot be negative");
                 }
 
-                employeeService.saveChanges();
-                refreshTable(employeeService.getEmployees());
+                // Every value is valid; the service applies them together under its write lock
                 updateDialog.dispose();
-                JOptionPane.showMessageDialog(this, "Employee updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                runInBackground("Saving changes...", () -> employeeService.updateEmployee(employee.getId(), emp -> {
+                    if (!newName.isEmpty()) {
+                        emp.setName(newName);
+                    }
+                    if (!newDept.isEmpty()) {
+                        emp.setDepartment(newDept);
+                    }
+                    emp.setBaseSalary(newBaseSalary);
+                    emp.setPerformanceRating(newRating);
+                    emp.setBonus(newBonus);
+                    emp.setFine(newFine);
+                    if (updateSubordinates) {
+                        ((Manager) emp).setSubordinatesManaged(newSubordinates);
+                    }
+                }), updated -> JOptionPane.showMessageDialog(this, "Employee updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE));
 
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(updateDialog, "Please enter valid numeric values for salary, bonus, fine, and subordinates.", "Invalid Input", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(updateDialog, ex.getMessage(), "Invalid Input", JOptionPane.ERROR_MESSAGE);
             }
         });
 
@@ -423,15 +598,6 @@ public class GraphicalUI extends JFrame {
         updateDialog.setVisible(true);
     }
 
-    // Helper methods to set bonus and fine directly
-    private void setEmployeeBonus(Employee employee, double newBonus) {
-        employee.setBonus(newBonus);
-    }
-
-    private void setEmployeeFine(Employee employee, double newFine) {
-        employee.setFine(newFine);
-    }
-
     private void deleteEmployee() {
         int selectedRow = employeeTable.getSelectedRow();
         if (selectedRow == -1) {
@@ -439,26 +605,47 @@ public class GraphicalUI extends JFrame {
             return;
         }
 
-        String employeeId = (String) tableModel.getValueAt(selectedRow, 0);
+        String employeeId = tableModel.getEmployeeAt(employeeTable.convertRowIndexToModel(selectedRow)).getId();
         int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete employee " + employeeId + "?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            if (employeeService.deleteEmployee(employeeId)) {
-                refreshTable(employeeService.getEmployees());
-                JOptionPane.showMessageDialog(this, "Employee deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, "Error deleting employee.", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            runInBackground("Deleting employee...", () -> employeeService.deleteEmployee(employeeId), deleted -> {
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, "Employee deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Error deleting employee.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
+        }
+    }
+
+    private void showPayrollReport() {
+        // Payroll visits the whole roster, so keep it off the event dispatch thread
+        runInBackground("Running payroll...", () -> employeeService.runPayroll().toString(), report -> {
+            JTextArea reportArea = new JTextArea(report);
+            reportArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+            reportArea.setEditable(false);
+            JScrollPane reportPane = new JScrollPane(reportArea);
+            reportPane.setPreferredSize(new Dimension(500, 350));
+            JOptionPane.showMessageDialog(this, reportPane, "Payroll Report", JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    private void clearSearchResults() {
+        if (currentTask instanceof LoadWorker) {
+            return; // The load refreshes the table when it finishes
         }
+        refreshTable(displayedEmployees());
+        statusLabel.setText(" ");
     }
 
-    private void searchEmployee(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            refreshTable(employeeService.getEmployees()); // Show all if search is empty
-        } else {
-            List<Employee> results = employeeService.findEmployeesByName(name);
-            refreshTable(results);
+    private void showSearchResults(List<Employee> results) {
+        if (currentTask instanceof LoadWorker) {
+            return; // The roster being searched is about to be replaced
         }
+        refreshTable(results);
+        showingSearchResults = true;
+        statusLabel.setText(String.format("%,d matching employees.", results.size()));
     }
 
     // Custom rounded text field class
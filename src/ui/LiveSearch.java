@@ -0,0 +1,135 @@
+package ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import models.Employee;
+import service.EmployeeService;
+
+/**
+ * Searches as the user types in a text field. Keystrokes restart a short timer, so a
+ * query only runs once typing pauses; queries run on a worker thread, and a query that
+ * is overtaken by a newer one is cancelled and its results dropped. When the new text
+ * extends the previous query and the roster has not changed since, the previous results
+ * are narrowed instead of searching the whole roster again.
+ */
+class LiveSearch {
+    // How long typing must pause before a query runs
+    private static final int DEBOUNCE_MILLIS = 150;
+    // How many rows are narrowed between checks for cancellation
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final JTextField field;
+    private final EmployeeService employeeService;
+    private final Consumer<List<Employee>> onResults;
+    private final Runnable onCleared;
+    private final Timer debounce;
+    private SwingWorker<List<Employee>, Void> running;
+    // The last completed search, which a longer query can narrow
+    private String lastQuery;
+    private List<Employee> lastResults;
+    private long lastVersion;
+
+    /**
+     * @param field The field the user types into
+     * @param employeeService The service to search
+     * @param onResults Shows the results of a search; called on the event dispatch thread
+     * @param onCleared Called on the event dispatch thread when the field is emptied
+     */
+    LiveSearch(JTextField field, EmployeeService employeeService, Consumer<List<Employee>> onResults, Runnable onCleared) {
+        this.field = field;
+        this.employeeService = employeeService;
+        this.onResults = onResults;
+        this.onCleared = onCleared;
+        this.debounce = new Timer(DEBOUNCE_MILLIS, e -> searchNow());
+        this.debounce.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                // Attribute changes do not change the text
+            }
+        });
+    }
+
+    /**
+     * Runs the query in the field without waiting for typing to pause, e.g. when the
+     * roster has changed and the results shown may be out of date.
+     */
+    void searchNow() {
+        debounce.stop();
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+        String query = field.getText().trim();
+        if (query.isEmpty()) {
+            lastQuery = null;
+            lastResults = null;
+            onCleared.run();
+            return;
+        }
+        long version = employeeService.getVersion();
+        List<Employee> narrowFrom = lastResults != null && lastVersion == version && query.startsWith(lastQuery)
+                ? lastResults : null;
+
+        SwingWorker<List<Employee>, Void> worker = new SwingWorker<List<Employee>, Void>() {
+            @Override
+            protected List<Employee> doInBackground() {
+                if (narrowFrom == null) {
+                    return employeeService.searchEmployees(query);
+                }
+                Predicate<Employee> matches = EmployeeService.searchFilter(query);
+                List<Employee> narrowed = new ArrayList<>();
+                for (int i = 0; i < narrowFrom.size(); i++) {
+                    if (i % CANCEL_CHECK_INTERVAL == 0 && isCancelled()) {
+                        return narrowed;
+                    }
+                    Employee emp = narrowFrom.get(i);
+                    if (matches.test(emp)) {
+                        narrowed.add(emp);
+                    }
+                }
+                return narrowed;
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled() || running != this) {
+                    return; // A newer query has taken over
+                }
+                running = null;
+                try {
+                    lastQuery = query;
+                    lastResults = get();
+                    lastVersion = version;
+                    onResults.accept(lastResults);
+                } catch (ExecutionException e) {
+                    System.err.println("Error searching employees: " + e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        running = worker;
+        worker.execute();
+    }
+}
@@ -1,17 +1,36 @@
 package ui;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
 
 import models.Employee;
 import models.Intern;
 import models.Manager;
+import models.PerformanceEvent;
+import models.PerformanceRating;
 import models.RegularEmployee;
+import service.EmployeeCursor;
 import service.EmployeeService;
 
 public class TextUI {
     private EmployeeService employeeService;
     private Scanner scanner;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DUMP_BUFFER_SIZE = 64 * 1024;
 
     public TextUI() {
         this.employeeService = new EmployeeService();
@@ -22,16 +41,18 @@ public class TextUI {
         while (true) {
             displayMenu();
             try {
-                int choice = getValidIntInput("Choose an option: ", 1, 8);
+                int choice = getValidIntInput("Choose an option: ", 1, 9);
                 switch (choice) {
                     case 1:loadEmployeeData(); break;
                     case 2: addEmployee();break; 
                     case 3:updateEmployee(); break;  
                     case 4: deleteEmployee();break; 
                     case 5:viewEmployeeDetails(); break; 
-                    case 6:System.out.println("Performance Management is not yet implemented.");break;   
+                    case 6:performanceManagementMenu();break;
                     case 7:sortEmployeesMenu();  break;
-                    case 8: System.out.println("Exiting...");
+                    case 8: displayPayrollReport(); break;
+                    case 9: System.out.println("Exiting...");
+                    employeeService.close();
                     return;
                 }
             } catch (Exception e) {
@@ -40,6 +61,11 @@ public class TextUI {
         }
     }
 
+    private void displayPayrollReport() {
+        System.out.println("\n>===== Payroll Report =====<");
+        System.out.print(employeeService.runPayroll());
+    }
+
     private void displayMenu() {
         System.out.println("\n>===== Main Menu =====<");
         System.out.println("1. Load employee data from file");
@@ -49,7 +75,8 @@ public class TextUI {
         System.out.println("5. View/Query employee details");
         System.out.println("6. Performance Management");
         System.out.println("7. Sort Employees");
-        System.out.println("8. Exit");
+        System.out.println("8. Run Payroll Report");
+        System.out.println("9. Exit");
     }
 
     private void sortEmployeesMenu() {
@@ -62,31 +89,105 @@ public class TextUI {
         System.out.println("6. Back to Main Menu");
 
         int choice = getValidIntInput("Choose a sorting option: ", 1, 6);
+        EmployeeService.SortCriteria criteria;
         switch (choice) {
             case 1:
-                employeeService.sortEmployees(EmployeeService.SortCriteria.BY_ID);
+                criteria = EmployeeService.SortCriteria.BY_ID;
                 System.out.println("Employees sorted by ID.");
                 break;
             case 2:
-                employeeService.sortEmployees(EmployeeService.SortCriteria.BY_NAME);
+                criteria = EmployeeService.SortCriteria.BY_NAME;
                 System.out.println("Employees sorted by Name.");
                 break;
             case 3:
-                employeeService.sortEmployees(EmployeeService.SortCriteria.BY_DEPARTMENT);
+                criteria = EmployeeService.SortCriteria.BY_DEPARTMENT;
                 System.out.println("Employees sorted by Department.");
                 break;
             case 4:
-                employeeService.sortEmployees(EmployeeService.SortCriteria.BY_SALARY);
+                criteria = EmployeeService.SortCriteria.BY_SALARY;
                 System.out.println("Employees sorted by Salary.");
                 break;
             case 5:
-                employeeService.sortEmployees(EmployeeService.SortCriteria.BY_PERFORMANCE_RATING);
+                criteria = EmployeeService.SortCriteria.BY_PERFORMANCE_RATING;
                 System.out.println("Employees sorted by Performance Rating.");
                 break;
+            default:
+                return; // Return to main menu
+        }
+        pageEmployees(employeeService.openCursor(criteria, pageSize));
+    }
+
+    private void performanceManagementMenu() {
+        System.out.println("\n--- Performance Management ---");
+        System.out.println("1. Issue a warning letter");
+        System.out.println("2. Issue an appreciation letter");
+        System.out.println("3. Award a bonus");
+        System.out.println("4. Apply a fine");
+        System.out.println("5. View an employee's performance events");
+        System.out.println("6. View all performance events in a date range");
+        System.out.println("7. Back to Main Menu");
+
+        int choice = getValidIntInput("Choose an option: ", 1, 7);
+        switch (choice) {
+            case 1:
+                recordPerformanceEvent(PerformanceEvent.Type.WARNING_LETTER, false);
+                break;
+            case 2:
+                recordPerformanceEvent(PerformanceEvent.Type.APPRECIATION_LETTER, false);
+                break;
+            case 3:
+                recordPerformanceEvent(PerformanceEvent.Type.BONUS, true);
+                break;
+            case 4:
+                recordPerformanceEvent(PerformanceEvent.Type.FINE, true);
+                break;
+            case 5:
+                System.out.print("Enter employee ID: ");
+                String id = scanner.nextLine();
+                LocalDate from = getOptionalDateInput("From date (YYYY-MM-DD, blank for no limit): ");
+                LocalDate to = getOptionalDateInput("To date (YYYY-MM-DD, blank for no limit): ");
+                displayPerformanceEvents(employeeService.findPerformanceEvents(id, from, to));
+                break;
             case 6:
+                LocalDate rangeFrom = getOptionalDateInput("From date (YYYY-MM-DD, blank for no limit): ");
+                LocalDate rangeTo = getOptionalDateInput("To date (YYYY-MM-DD, blank for no limit): ");
+                displayPerformanceEvents(employeeService.findPerformanceEvents(rangeFrom, rangeTo));
+                break;
+            default:
                 return; // Return to main menu
         }
-        displayEmployees(employeeService.getEmployees());
+    }
+
+    private void recordPerformanceEvent(PerformanceEvent.Type type, boolean hasAmount) {
+        System.out.print("Enter employee ID: ");
+        String id = scanner.nextLine();
+        if (employeeService.findEmployeeById(id).isEmpty()) {
+            System.out.println("Employee not found.");
+            return;
+        }
+        double amount = 0;
+        if (hasAmount) {
+            amount = getValidDoubleInput("Enter amount: ");
+            if (amount < 0) {
+                System.out.println("Amount cannot be negative.");
+                return;
+            }
+        }
+        System.out.print("Enter reason: ");
+        String reason = scanner.nextLine().trim();
+        if (employeeService.recordPerformanceEvent(new PerformanceEvent(id, type, amount, reason))) {
+            System.out.println(type.getLabel() + " recorded successfully.");
+        } else {
+            System.out.println("Error recording " + type.getLabel().toLowerCase() + ".");
+        }
+    }
+
+    private void displayPerformanceEvents(List<PerformanceEvent> events) {
+        if (events.isEmpty()) {
+            System.out.println("No performance events to display.");
+            return;
+        }
+        events.forEach(System.out::println);
     }
 
     private void loadEmployeeData() {
@@ -134,92 +235,102 @@ public class TextUI {
             System.out.println("Current Total Salary: $" + String.format("%.2f", employee.calculateSalary()));
             System.out.println("\nPress Enter to keep current value, or enter new value to change:");
 
-            // Update Name
+            // Read every new value first; the service then applies them together under its write lock
             System.out.print("Name (current: " + employee.getName() + "): ");
             String newName = scanner.nextLine().trim();
-            if (!newName.isEmpty()) {
-                employee.setName(newName);
-            }
 
-            // Update Department
             System.out.print("Department (current: " + employee.getDepartment() + "): ");
             String newDept = scanner.nextLine().trim();
-            if (!newDept.isEmpty()) {
-                employee.setDepartment(newDept);
-            }
 
-            // Update Base Salary
             System.out.print("Base Salary (current: $" + String.format("%.2f", employee.getBaseSalary()) + "): ");
-            String baseSalaryInput = scanner.nextLine().trim();
-            if (!baseSalaryInput.isEmpty()) {
-                try {
-                    double newBaseSalary = Double.parseDouble(baseSalaryInput);
-                    employee.setBaseSalary(newBaseSalary);
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid salary format. Keeping current value.");
-                }
-            }
+            Double newBaseSalary = readAmount("salary");
 
-            // Update Performance Rating
             System.out.print("Performance Rating (current: " + employee.getPerformanceRating() + "): ");
+            PerformanceRating newRating = null;
             String newPerformance = scanner.nextLine().trim();
             if (!newPerformance.isEmpty()) {
-                employee.setPerformanceRating(newPerformance);
-            }
-
-            // Update Bonus
-            System.out.print("Bonus (current: $" + String.format("%.2f", employee.getBonus()) + "): ");
-            String bonusInput = scanner.nextLine().trim();
-            if (!bonusInput.isEmpty()) {
                 try {
-                    double newBonus = Double.parseDouble(bonusInput);
-                    setEmployeeBonus(employee, newBonus);
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid bonus format. Keeping current value.");
+                    newRating = PerformanceRating.parse(newPerformance);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid performance rating. Keeping current value.");
                 }
             }
 
-            // Update Fine
+            System.out.print("Bonus (current: $" + String.format("%.2f", employee.getBonus()) + "): ");
+            Double newBonus = readAmount("bonus");
+
             System.out.print("Fine (current: $" + String.format("%.2f", employee.getFine()) + "): ");
-            String fineInput = scanner.nextLine().trim();
-            if (!fineInput.isEmpty()) {
-                try {
-                    double newFine = Double.parseDouble(fineInput);
-                    setEmployeeFine(employee, newFine);
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid fine format. Keeping current value.");
-                }
-            }
+            Double newFine = readAmount("fine");
 
-            // Update Manager-specific fields
+            Integer newSubordinates = null;
             if (employee instanceof Manager) {
-                Manager manager = (Manager) employee;
-                System.out.print("Subordinates Managed (current: " + manager.getSubordinatesManaged() + "): ");
+                System.out.print("Subordinates Managed (current: " + ((Manager) employee).getSubordinatesManaged() + "): ");
                 String subInput = scanner.nextLine().trim();
                 if (!subInput.isEmpty()) {
                     try {
-                        int newSubordinates = Integer.parseInt(subInput);
-                        manager.setSubordinatesManaged(newSubordinates);
+                        newSubordinates = Integer.parseInt(subInput);
+                        if (newSubordinates < 0) {
+                            System.out.println("Subordinates cannot be negative. Keeping current value.");
+                            newSubordinates = null;
+                        }
                     } catch (NumberFormatException e) {
                         System.out.println("Invalid subordinates format. Keeping current value.");
                     }
                 }
             }
 
-            employeeService.saveChanges(); // Persist changes
+            PerformanceRating rating = newRating;
+            Integer subordinates = newSubordinates;
+            Employee updated = employeeService.updateEmployee(employee.getId(), emp -> {
+                if (!newName.isEmpty()) {
+                    emp.setName(newName);
+                }
+                if (!newDept.isEmpty()) {
+                    emp.setDepartment(newDept);
+                }
+                if (newBaseSalary != null) {
+                    emp.setBaseSalary(newBaseSalary);
+                }
+                if (rating != null) {
+                    emp.setPerformanceRating(rating);
+                }
+                if (newBonus != null) {
+                    emp.setBonus(newBonus);
+                }
+                if (newFine != null) {
+                    emp.setFine(newFine);
+                }
+                if (subordinates != null) {
+                    ((Manager) emp).setSubordinatesManaged(subordinates);
+                }
+            });
             System.out.println("\nEmployee updated successfully!");
-            System.out.println("New Total Salary: $" + String.format("%.2f", employee.calculateSalary()));
+            System.out.println("New Total Salary: $" + String.format("%.2f", updated.calculateSalary()));
             
         }, () -> System.out.println("Employee not found."));
     }
 
-    // Helper methods to set bonus and fine directly
-    private void setEmployeeBonus(Employee employee, double newBonus) {
-        employee.setBonus(newBonus);
-    }
-
-    private void setEmployeeFine(Employee employee, double newFine) {
-        employee.setFine(newFine);
+    /**
+     * Reads an optional amount for an update, e.g. a new salary.
+     * @param what The name of the amount, for error messages
+     * @return The amount, or null to keep the current value
+     */
+    private Double readAmount(String what) {
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return null;
+        }
+        try {
+            double amount = Double.parseDouble(input);
+            if (amount < 0) {
+                System.out.println("The " + what + " cannot be negative. Keeping current value.");
+                return null;
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid " + what + " format. Keeping current value.");
+            return null;
+        }
     }
 
     private void deleteEmployee() {
@@ -238,11 +349,12 @@ public class TextUI {
         System.out.println("2. Search by ID");
         System.out.println("3. Search by name");
         System.out.println("4. Search by department");
+        System.out.println("5. Search by minimum performance rating");
 
-        int choice = getValidIntInput("Choose an option: ", 1, 4);
+        int choice = getValidIntInput("Choose an option: ", 1, 5);
         switch (choice) {
             case 1:
-                displayEmployees(employeeService.getEmployees());
+                pageEmployees(employeeService.openCursor(pageSize));
                 break;
             case 2:
                 System.out.print("Enter ID: ");
@@ -260,15 +372,122 @@ public class TextUI {
                 String dept = scanner.nextLine();
                 displayEmployees(employeeService.findEmployeesByDepartment(dept));
                 break;
+            case 5:
+                int minimum = getValidIntInput("Enter minimum rating (1-5): ", 1, 5);
+                displayEmployees(employeeService.findEmployeesByMinimumRating(PerformanceRating.fromScore(minimum)));
+                break;
         }
     }
 
     private void displayEmployees(List<Employee> employees) {
-        if (employees.isEmpty()) {
+        pageEmployees(EmployeeCursor.of(employees, pageSize));
+    }
+
+    /**
+     * Shows employees a page at a time, so a large roster neither floods the terminal
+     * nor waits for every row to be formatted before the first one appears.
+     */
+    private void pageEmployees(EmployeeCursor cursor) {
+        if (cursor.getTotalCount() == 0) {
             System.out.println("No employees to display.");
             return;
         }
-        employees.forEach(System.out::println);
+        List<Employee> page = cursor.currentPage();
+        while (true) {
+            printPage(cursor, page);
+            if (cursor.getPageCount() == 1) {
+                return;
+            }
+            String command;
+            do {
+                System.out.print("[N]ext, [P]revious, [J]ump to page, page [S]ize, [D]ump all, [Q]uit: ");
+                command = scanner.nextLine().trim().toUpperCase();
+            } while (!isPagerCommand(command, cursor));
+            switch (command) {
+                case "":
+                case "N":
+                    page = cursor.next();
+                    break;
+                case "P":
+                    page = cursor.previous();
+                    break;
+                case "J":
+                    int number = getValidIntInput("Page number (1-" + cursor.getPageCount() + "): ", 1, cursor.getPageCount());
+                    page = cursor.jumpToPage(number - 1);
+                    break;
+                case "S":
+                    pageSize = getValidIntInput("Employees per page (1-" + MAX_PAGE_SIZE + "): ", 1, MAX_PAGE_SIZE);
+                    cursor.setPageSize(pageSize);
+                    page = cursor.currentPage();
+                    break;
+                case "D":
+                    dumpEmployees(cursor);
+                    return;
+                default:
+                    return;
+            }
+        }
+    }
+
+    private boolean isPagerCommand(String command, EmployeeCursor cursor) {
+        switch (command) {
+            case "":
+            case "N":
+                if (!cursor.hasNext()) {
+                    System.out.println("Already on the last page.");
+                    return false;
+                }
+                return true;
+            case "P":
+                if (!cursor.hasPrevious()) {
+                    System.out.println("Already on the first page.");
+                    return false;
+                }
+                return true;
+            case "J":
+            case "S":
+            case "D":
+            case "Q":
+                return true;
+            default:
+                System.out.println("Invalid input. Please enter N, P, J, S, D or Q.");
+                return false;
+        }
+    }
+
+    private void printPage(EmployeeCursor cursor, List<Employee> page) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n--- Page %,d of %,d (employees %,d-%,d of %,d) ---%n",
+                cursor.getPageNumber() + 1, cursor.getPageCount(),
+                cursor.getOffset() + 1, cursor.getOffset() + page.size(), cursor.getTotalCount()));
+        for (Employee emp : page) {
+            sb.append(emp).append(System.lineSeparator());
+        }
+        System.out.print(sb);
+    }
+
+    /**
+     * Writes every employee to a file or the screen through one large buffer, rather than
+     * flushing the console after every line.
+     */
+    private void dumpEmployees(EmployeeCursor cursor) {
+        System.out.print("File to write to (leave blank for the screen): ");
+        String fileName = scanner.nextLine().trim();
+        try {
+            if (fileName.isEmpty()) {
+                // Not closed, which would close System.out
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), DUMP_BUFFER_SIZE);
+                cursor.writeAll(out);
+                out.flush();
+            } else {
+                try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8)) {
+                    cursor.writeAll(out);
+                }
+                System.out.printf("Wrote %,d employees to %s.%n", cursor.getTotalCount(), fileName);
+            }
+        } catch (IOException | InvalidPathException e) {
+            System.out.println("Error writing employees: " + e.getMessage());
+        }
     }
 
     private int getValidIntInput(String prompt, int min, int max) {
@@ -288,6 +507,21 @@ public class TextUI {
         }
     }
 
+    private LocalDate getOptionalDateInput(String prompt) {
+        while (true) {
+            System.out.print(prompt);
+            String input = scanner.nextLine().trim();
+            if (input.isEmpty()) {
+                return null;
+            }
+            try {
+                return LocalDate.parse(input);
+            } catch (DateTimeParseException e) {
+                System.out.println("Invalid input. Please enter a date as YYYY-MM-DD.");
+            }
+        }
+    }
+
     private double getValidDoubleInput(String prompt) {
         double value;
         while (true) {
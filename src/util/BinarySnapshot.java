@@ -0,0 +1,197 @@
+package util;
+
+import models.*;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads and writes employees in a compact, versioned binary format, which loads much
+ * faster than CSV because numbers are stored as raw doubles rather than text.
+ *
+ * Layout: the magic number, the format version and the record count as ints, followed by
+ * one record per employee: a type tag byte, the ID, name, department and performance
+ * rating as length-prefixed UTF-8 strings, base salary, bonus and fine as doubles and,
+ * for managers only, the number of subordinates as an int.
+ */
+public class BinarySnapshot {
+    public static final String EXTENSION = ".ems";
+
+    private static final int MAGIC = 0x454D5342; // "EMSB"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private static final byte TYPE_MANAGER = 1;
+    private static final byte TYPE_REGULAR = 2;
+    private static final byte TYPE_INTERN = 3;
+    // Type tag, four string lengths and three doubles: the least any record can take
+    private static final int MIN_RECORD_SIZE = 1 + 4 * 4 + 3 * 8;
+
+    private BinarySnapshot() {
+    }
+
+    /**
+     * Checks whether a file should be read and written as a binary snapshot.
+     * @param fileName The name of the file
+     * @return true if the name ends in {@value #EXTENSION}
+     */
+    public static boolean isSnapshotFile(String fileName) {
+        return fileName.toLowerCase(Locale.ROOT).endsWith(EXTENSION);
+    }
+
+    /**
+     * Loads employees from a binary snapshot.
+     * @param fileName The name of the file to load from
+     * @return List of employees, in the order they were written
+     * @throws IOException If the file cannot be read, is not a supported snapshot or is corrupt
+     */
+    public static List<Employee> read(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(fileName + " is too large to map");
+            }
+            // Mapping avoids copying the file through a stream buffer before decoding it
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < 12 || in.getInt() != MAGIC) {
+                throw new IOException(fileName + " is not an employee snapshot");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + fileName);
+            }
+            int count = in.getInt();
+            // Checked before sizing the list, so a corrupt count cannot demand a huge allocation
+            if (count < 0 || count > in.remaining() / MIN_RECORD_SIZE) {
+                throw new IOException("Corrupt snapshot " + fileName + ": record count " + count
+                        + " does not fit in " + in.remaining() + " bytes");
+            }
+            List<Employee> employees = new ArrayList<>(count);
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < count; i++) {
+                try {
+                    employees.add(readRecord(in, scratch));
+                } catch (BufferUnderflowException e) {
+                    throw e;
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException("Corrupt snapshot " + fileName + ": record " + i + ": " + e.getMessage(), e);
+                }
+            }
+            return employees;
+        } catch (BufferUnderflowException e) {
+            throw new IOException(fileName + " is truncated", e);
+        }
+    }
+
+    /**
+     * Reads one employee record, validating its values with the employee setters so a
+     * negative amount or an unknown rating surfaces as an IllegalArgumentException.
+     */
+    private static Employee readRecord(ByteBuffer in, byte[] scratch) throws IOException {
+        byte type = in.get();
+        String id = readString(in, scratch);
+        String name = readString(in, scratch);
+        String department = readString(in, scratch);
+        String rating = readString(in, scratch);
+        double baseSalary = in.getDouble();
+        double bonus = in.getDouble();
+        double fine = in.getDouble();
+
+        Employee emp;
+        switch (type) {
+            case TYPE_MANAGER:
+                Manager manager = new Manager(id, name, department, 0.0, 0);
+                manager.setSubordinatesManaged(in.getInt());
+                emp = manager;
+                break;
+            case TYPE_REGULAR:
+                emp = new RegularEmployee(id, name, department, 0.0);
+                break;
+            case TYPE_INTERN:
+                emp = new Intern(id, name, department, 0.0);
+                break;
+            default:
+                throw new IOException("Unknown employee type " + type);
+        }
+        emp.setBaseSalary(baseSalary);
+        emp.setPerformanceRating(rating);
+        emp.setBonus(bonus);
+        emp.setFine(fine);
+        return emp;
+    }
+
+    /**
+     * Writes employees as a binary snapshot to an open channel.
+     * @param employees List of employees to save
+     * @param channel The channel to write to; it is left open
+     * @throws IOException If there's an error writing
+     */
+    static void write(List<Employee> employees, FileChannel channel) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(employees.size());
+        for (Employee emp : employees) {
+            out.writeByte(typeOf(emp));
+            writeString(out, emp.getId());
+            writeString(out, emp.getName());
+            writeString(out, emp.getDepartment());
+            writeString(out, emp.getPerformanceRating().getCode());
+            out.writeDouble(emp.getBaseSalary());
+            out.writeDouble(emp.getBonus());
+            out.writeDouble(emp.getFine());
+            if (emp instanceof Manager) {
+                out.writeInt(((Manager) emp).getSubordinatesManaged());
+            }
+        }
+        out.flush();
+    }
+
+    private static byte typeOf(Employee emp) throws IOException {
+        if (emp instanceof Manager) return TYPE_MANAGER;
+        if (emp instanceof RegularEmployee) return TYPE_REGULAR;
+        if (emp instanceof Intern) return TYPE_INTERN;
+        throw new IOException("Cannot store employee type " + emp.getClass().getSimpleName());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in, byte[] scratch) throws IOException {
+        int length = in.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("String length " + length + " does not fit in " + in.remaining() + " bytes");
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        in.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts a data file between CSV and binary snapshot formats, chosen by file extension.
+     * Usage: java util.BinarySnapshot &lt;source&gt; &lt;target&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java util.BinarySnapshot <source> <target>");
+            System.exit(1);
+        }
+        FileHandler.convert(args[0], args[1]);
+        System.out.println("Converted " + args[0] + " to " + args[1]);
+    }
+}
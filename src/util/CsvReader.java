@@ -0,0 +1,176 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A streaming CSV tokenizer that reads records one at a time from a character buffer.
+ * Fields may be wrapped in double quotes to contain commas, line breaks or quotes
+ * (written as two double quotes). Unquoted fields are trimmed of surrounding whitespace.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    // Reused across records so reading a row only allocates the field strings themselves
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> fields = new ArrayList<>();
+    private boolean sawQuotedLineBreak;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    /**
+     * Reads the next record, skipping blank lines.
+     * @return The fields of the record, or null at the end of the input
+     * @throws IOException If there's an error reading from the underlying reader
+     */
+    public String[] readRecord() throws IOException {
+        fields.clear();
+        int c;
+        // Skip blank lines between records
+        do {
+            c = read();
+            if (c == -1) {
+                return null;
+            }
+        } while (c == '\n' || c == '\r');
+
+        while (true) {
+            c = readField(c);
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            // End of line or end of input
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Reads one field starting with the given character and adds it to the current record.
+     * @return The character that ended the field: a comma, a line break or -1
+     */
+    private int readField(int c) throws IOException {
+        field.setLength(0);
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        if (c == '"') {
+            c = readQuoted();
+            fields.add(field.toString());
+            // Ignore anything between the closing quote and the next separator
+            while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                c = read();
+            }
+            return c;
+        }
+        while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+            field.append((char) c);
+            c = read();
+        }
+        int end = field.length();
+        while (end > 0 && Character.isWhitespace(field.charAt(end - 1))) {
+            end--;
+        }
+        field.setLength(end);
+        fields.add(field.toString());
+        return c;
+    }
+
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return c; // Unterminated quote, keep what was read
+            }
+            if (c == '"') {
+                if (peek() == '"') {
+                    read();
+                    field.append('"');
+                } else {
+                    return read();
+                }
+            } else {
+                if (c == '\n' || c == '\r') {
+                    sawQuotedLineBreak = true;
+                }
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Tells whether any quoted field read so far contained a line break, i.e. whether
+     * the input could not have been split into records at line breaks alone.
+     * @return true if a quoted line break has been read
+     */
+    public boolean sawQuotedLineBreak() {
+        return sawQuotedLineBreak;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n;
+        do {
+            n = reader.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Quotes a value for writing to a CSV file if it contains characters that would
+     * otherwise be read back differently.
+     * @param value The value to write
+     * @return The value, quoted if necessary
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuotes = !value.isEmpty()
+                && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -2,7 +2,25 @@ package util;
 
 import models.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 
 /**
  * Utility class to handle all file operations for the Employee Management System.
@@ -11,66 +29,686 @@ public class FileHandler {
     private static final String DEFAULT_FILE_NAME = "employee_data.csv";
     private static final String HEADER = "Type,Name,ID,Department,BaseSalary,PerformanceRating,Bonus,Fine";
     private static String CSV_FILE_PATH = "employee_data.csv";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    // Each parallel chunk should be big enough to outweigh the cost of scheduling it
+    private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final long MAX_CHUNK_SIZE = 256L * 1024 * 1024;
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * The kinds of change recorded in the journal that sits next to a data file.
+     */
+    public enum JournalOperation {
+        ADD,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * A single change read back from a journal.
+     */
+    public static class JournalEntry {
+        private final JournalOperation operation;
+        private final String employeeId;
+        private final Employee employee;
+
+        private JournalEntry(JournalOperation operation, String employeeId, Employee employee) {
+            this.operation = operation;
+            this.employeeId = employeeId;
+            this.employee = employee;
+        }
+
+        public JournalOperation getOperation() { return operation; }
+        public String getEmployeeId() { return employeeId; }
+        /** The new state of the employee, or null for a DELETE entry. */
+        public Employee getEmployee() { return employee; }
+    }
 
     public static void setCsvFilePath(String path) {
         CSV_FILE_PATH = path;
     }
 
     /**
-     * Loads employee data from a CSV file.
+     * Loads employee data from a CSV file, or from a binary snapshot if the file
+     * name ends in {@value BinarySnapshot#EXTENSION}.
      * @param fileName The name of the file to load from
      * @return List of employees
      * @throws IOException If there's an error reading the file
      */
     public static List<Employee> readEmployees(String fileName) throws IOException {
-        List<Employee> employees = new ArrayList<>();
+        File file = new File(fileName);
+        if (BinarySnapshot.isSnapshotFile(fileName)) {
+            return file.exists() ? BinarySnapshot.read(fileName) : new ArrayList<>();
+        }
+        return readEmployeesSequential(fileName);
+    }
+
+    private static List<Employee> readEmployeesSequential(String fileName) throws IOException {
+        try (Stream<Employee> stream = streamEmployees(fileName)) {
+            return stream.collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Streams employee data from a CSV file, parsing one row at a time so that
+     * memory use does not grow with the size of the file. The returned stream
+     * holds the file open and must be closed, e.g. with try-with-resources.
+     * @param fileName The name of the file to load from
+     * @return A lazily populated stream of employees; read errors surface as UncheckedIOException
+     * @throws IOException If the file cannot be opened
+     */
+    public static Stream<Employee> streamEmployees(String fileName) throws IOException {
+        return streamEmployees(fileName, null);
+    }
+
+    /**
+     * Streams employee data from a CSV file like {@link #streamEmployees(String)}, also
+     * reporting how far into the file the reader has got, so callers can show progress.
+     * @param fileName The name of the file to load from
+     * @param progress Called with the number of bytes read so far each time a row is parsed, or null
+     * @return A lazily populated stream of employees; read errors surface as UncheckedIOException
+     * @throws IOException If the file cannot be opened
+     */
+    public static Stream<Employee> streamEmployees(String fileName, LongConsumer progress) throws IOException {
         File file = new File(fileName);
 
         if (!file.exists()) {
             createDefaultFile(fileName);
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
+        CountingInputStream in = new CountingInputStream(new FileInputStream(file));
+        CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            csv.readRecord(); // Skip header
+        } catch (IOException e) {
+            csv.close();
+            throw e;
+        }
+
+        Iterator<Employee> rows = new Iterator<Employee>() {
+            private Employee next;
+
+            @Override
+            public boolean hasNext() {
                 try {
-                    String[] parts = line.split(",");
-                    if (parts.length >= 5) {
-                        Employee emp = createEmployeeFromCSV(parts);
-                        if (emp != null) {
-                            employees.add(emp);
-                        }
+                    String[] parts;
+                    while (next == null && (parts = csv.readRecord()) != null) {
+                        next = parseRecord(parts, 0);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return next != null;
+            }
+
+            @Override
+            public Employee next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Employee emp = next;
+                next = null;
+                if (progress != null) {
+                    progress.accept(in.count);
+                }
+                return emp;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        csv.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Loads employee data from a CSV file by memory-mapping it, splitting it into
+     * newline-aligned chunks and parsing the chunks in parallel on the common fork-join pool.
+     * The result is in file order and identical to what {@link #readEmployees(String)} produces.
+     * Splitting at line breaks is only safe when no quoted field contains one, so if any
+     * chunk turns out to hold a quoted line break the file is read again sequentially.
+     * This reader is never chosen automatically; callers opt in for large files.
+     * @param fileName The name of the file to load from
+     * @return List of employees
+     * @throws IOException If there's an error reading the file
+     */
+    public static List<Employee> readEmployeesParallel(String fileName) throws IOException {
+        long size = new File(fileName).length();
+        long chunks = Math.min(size / MIN_CHUNK_SIZE, Runtime.getRuntime().availableProcessors() * 4L);
+        chunks = Math.max(chunks, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+        return readEmployeesParallel(fileName, (int) Math.max(1, chunks));
+    }
+
+    static List<Employee> readEmployeesParallel(String fileName, int chunkCount) throws IOException {
+        if (!new File(fileName).exists()) {
+            createDefaultFile(fileName);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            long[] bounds = findChunkBounds(channel, chunkCount);
+            List<List<Employee>> parsed;
+            try {
+                parsed = IntStream.range(0, bounds.length - 1)
+                        .parallel()
+                        .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1], i == 0))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (parsed.contains(null)) {
+                // A quoted line break may have been split between chunks
+                return readEmployeesSequential(fileName);
+            }
+
+            int total = 0;
+            for (List<Employee> chunk : parsed) {
+                total += chunk.size();
+            }
+            List<Employee> employees = new ArrayList<>(total);
+            for (List<Employee> chunk : parsed) {
+                employees.addAll(chunk);
+            }
+            return employees;
+        }
+    }
+
+    /**
+     * Splits a file into roughly equal ranges whose boundaries fall just after a line break.
+     * @return The start offset of every chunk followed by the size of the file
+     */
+    private static long[] findChunkBounds(FileChannel channel, int chunkCount) throws IOException {
+        long size = channel.size();
+        long[] bounds = new long[chunkCount + 1];
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        for (int i = 1; i < chunkCount; i++) {
+            long position = Math.max(bounds[i - 1], size * i / chunkCount);
+            bounds[i] = size;
+            probe.clear();
+            int read;
+            search:
+            while ((read = channel.read(probe, position)) > 0) {
+                for (int j = 0; j < read; j++) {
+                    if (probe.get(j) == '\n') {
+                        bounds[i] = position + j + 1;
+                        break search;
                     }
-                } catch (NumberFormatException e) {
-                    System.err.println("Error parsing number in line: " + line);
                 }
+                position += read;
+                probe.clear();
             }
         }
+        bounds[chunkCount] = size;
+        return bounds;
+    }
+
+    /**
+     * Parses the rows between two chunk bounds.
+     * @return The employees, or null if the chunk holds a quoted line break
+     */
+    private static List<Employee> parseChunk(FileChannel channel, long start, long end, boolean hasHeader) {
+        List<Employee> employees = new ArrayList<>();
+        if (end <= start) {
+            return employees;
+        }
+        try {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            // Chunks start after a '\n' byte, which never occurs inside a multi-byte UTF-8 sequence
+            CharBuffer chars = StandardCharsets.UTF_8.decode(bytes);
+            try (CsvReader csv = new CsvReader(new CharBufferReader(chars))) {
+                if (hasHeader) {
+                    csv.readRecord();
+                }
+                String[] parts;
+                while ((parts = csv.readRecord()) != null) {
+                    Employee emp = parseRecord(parts, 0);
+                    if (emp != null) {
+                        employees.add(emp);
+                    }
+                }
+                if (csv.sawQuotedLineBreak()) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return employees;
     }
 
     /**
-     * Saves employee data to a CSV file.
+     * A Reader over a chunk that has already been decoded in one go, so CsvReader reads
+     * from the decoded characters instead of decoding the mapped bytes again.
+     */
+    private static class CharBufferReader extends Reader {
+        private final CharBuffer chars;
+
+        CharBufferReader(CharBuffer chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (!chars.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, chars.remaining());
+            chars.get(cbuf, off, n);
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Converts the fields of one CSV record into an employee, reporting malformed rows.
+     * @param parts The fields of the record
+     * @param offset The index of the Type field
+     * @return The employee, or null if the row is not a valid employee
+     */
+    private static Employee parseRecord(String[] parts, int offset) {
+        if (parts.length - offset < 5) {
+            return null;
+        }
+        try {
+            return createEmployeeFromCSV(offset == 0 ? parts : Arrays.copyOfRange(parts, offset, parts.length));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing line: " + String.join(",", parts));
+            return null;
+        }
+    }
+
+    /**
+     * Saves employee data to a CSV file, or to a binary snapshot if the file name
+     * ends in {@value BinarySnapshot#EXTENSION}. The data is written to a temporary file in the
+     * same directory, flushed to disk and then renamed over the target, so a crash part
+     * way through leaves the previous file intact. No backups are kept.
      * @param employees List of employees to save
      * @param filePath The name of the file to save to
      * @throws IOException If there's an error writing to the file
      */
-    public static void writeEmployees(List<Employee> employees, String filePath) {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+    public static void writeEmployees(List<Employee> employees, String filePath) throws IOException {
+        writeEmployees(employees, filePath, 0);
+    }
+
+    /**
+     * Saves employee data like {@link #writeEmployees(List, String)}, keeping the previous
+     * file as filePath.bak1, filePath.bak2 and so on, newest first.
+     * @param employees List of employees to save
+     * @param filePath The name of the file to save to
+     * @param backupCount The number of backups to keep, or 0 to keep none
+     * @throws IOException If there's an error writing to the file
+     */
+    public static void writeEmployees(List<Employee> employees, String filePath, int backupCount) throws IOException {
+        if (backupCount < 0) {
+            throw new IllegalArgumentException("Backup count cannot be negative");
+        }
+        if (BinarySnapshot.isSnapshotFile(filePath)) {
+            writeAtomically(Paths.get(filePath), channel -> BinarySnapshot.write(employees, channel), backupCount);
+            return;
+        }
+        writeTextAtomically(Paths.get(filePath), backupCount, bw -> {
             bw.write(HEADER);
             bw.newLine();
-            
+
             for (Employee emp : employees) {
                 bw.write(convertEmployeeToCSV(emp));
                 bw.newLine();
             }
+        });
+    }
+
+    /**
+     * Gets the path of one of the rolling backups of a data file.
+     * @param filePath The path of the data file
+     * @param generation 1 for the most recent backup, 2 for the one before, and so on
+     * @return The backup path
+     */
+    public static String getBackupPath(String filePath, int generation) {
+        return filePath + ".bak" + generation;
+    }
+
+    /**
+     * Copies employees from one data file to another, converting between formats by file extension,
+     * e.g. from employee_data.csv to employee_data.ems.
+     * @param sourcePath The file to read
+     * @param targetPath The file to write
+     * @throws IOException If there's an error reading or writing
+     */
+    public static void convert(String sourcePath, String targetPath) throws IOException {
+        writeEmployees(readEmployees(sourcePath), targetPath);
+    }
+
+    interface ChannelContent {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private interface TextContent {
+        void writeTo(BufferedWriter writer) throws IOException;
+    }
+
+    private static void writeTextAtomically(Path target, int backupCount, TextContent content) throws IOException {
+        writeAtomically(target, channel -> {
+            BufferedWriter bw = new BufferedWriter(new ChannelWriter(channel), WRITE_BUFFER_SIZE);
+            content.writeTo(bw);
+            bw.close(); // Flushes the encoder; the channel itself is closed by writeAtomically
+        }, backupCount);
+    }
+
+    /**
+     * Writes a file atomically without rotating backups, for internal files such as index
+     * checkpoints that are rebuilt rather than restored.
+     */
+    static void writeAtomically(Path target, ChannelContent content) throws IOException {
+        writeAtomically(target, content, 0);
+    }
+
+    /**
+     * Writes a file atomically, keeping up to backupCount previous versions. Each write uses
+     * its own uniquely named temporary file, so concurrent writes to one target cannot
+     * interleave their contents; the last rename wins.
+     */
+    static void writeAtomically(Path target, ChannelContent content, int backupCount) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, target.getFileName() + ".", ".tmp");
+        try {
+            copyPermissions(target, temp);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                content.writeTo(channel);
+                channel.force(true);
+            }
+
+            if (backupCount > 0 && Files.exists(target)) {
+                rotateBackups(target, backupCount);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Gives a temporary file the permissions of the file it will replace, since temporary
+     * files are created readable by their owner only.
+     */
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            if (Files.exists(from)) {
+                Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // Not a POSIX file system, or not ours to read; keep the defaults
+        }
+    }
+
+    private static void rotateBackups(Path target, int backupCount) throws IOException {
+        String name = target.toString();
+        Files.deleteIfExists(Paths.get(getBackupPath(name, backupCount)));
+        for (int generation = backupCount - 1; generation >= 1; generation--) {
+            Path backup = Paths.get(getBackupPath(name, generation));
+            if (Files.exists(backup)) {
+                Files.move(backup, Paths.get(getBackupPath(name, generation + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // A hard link keeps the old contents without copying them; the rename that
+        // follows replaces the directory entry, not the data the link points to
+        Path newest = Paths.get(getBackupPath(name, 1));
+        try {
+            Files.createLink(newest, target);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(target, newest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Flushes the directory entry created by a rename. Not every platform allows opening a
+     * directory, in which case the rename is left to the file system's own durability.
+     */
+    private static void syncDirectory(Path file) {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
         } catch (IOException e) {
-            e.printStackTrace();
+            // Directories cannot be opened for syncing on this platform
         }
     }
 
+    /**
+     * A Writer that encodes straight into a direct buffer and hands full buffers to a channel.
+     */
+    private static class ChannelWriter extends Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+        ChannelWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(cbuf, off, len);
+            while (encoder.encode(chars, buffer, false).isOverflow()) {
+                drain();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            while (encoder.encode(CharBuffer.allocate(0), buffer, true).isOverflow()) {
+                drain();
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                drain();
+            }
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Gets the path of the change journal kept alongside a data file.
+     * @param dataFilePath The path of the data file
+     * @return The journal path
+     */
+    public static String getJournalPath(String dataFilePath) {
+        return dataFilePath + JOURNAL_SUFFIX;
+    }
+
+    /**
+     * Appends a single change to the journal of a data file and forces it to disk. The cost
+     * of this call does not depend on how many employees the data file holds.
+     * <p>
+     * Each entry is framed as {@code length,checksum,record} plus a line break, where the
+     * length is the UTF-8 byte count of the CSV record and the checksum its CRC-32, so a
+     * replay can tell a complete entry from one cut short by a crash.
+     * @param dataFilePath The path of the data file the change belongs to
+     * @param operation The kind of change
+     * @param employee The employee that was added, updated or deleted
+     * @throws IOException If there's an error writing to the journal
+     */
+    public static void appendJournalEntry(String dataFilePath, JournalOperation operation, Employee employee) throws IOException {
+        String record = operation.name() + "," + (operation == JournalOperation.DELETE
+                ? CsvReader.escape(employee.getId())
+                : convertEmployeeToCSV(employee));
+        byte[] payload = record.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        byte[] header = (payload.length + "," + Long.toHexString(crc.getValue()) + ",").getBytes(StandardCharsets.US_ASCII);
+
+        Path journal = Paths.get(getJournalPath(dataFilePath));
+        try (FileChannel channel = FileChannel.open(journal,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            if (end > 0 && !endsWithLineBreak(channel, end)) {
+                // A crash tore the last entry; cut it off so this entry can't complete it
+                end = scanJournal(Files.readAllBytes(journal), journal, null);
+                channel.truncate(end);
+            }
+            ByteBuffer entry = ByteBuffer.allocate(header.length + payload.length + 1);
+            entry.put(header).put(payload).put((byte) '\n').flip();
+            while (entry.hasRemaining()) {
+                end += channel.write(entry, end);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static boolean endsWithLineBreak(FileChannel channel, long size) throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        return channel.read(last, size - 1) == 1 && last.get(0) == '\n';
+    }
+
+    /**
+     * Reads all changes recorded in the journal of a data file, in the order they were made.
+     * An incomplete final entry, left by a crash part way through an append, is dropped.
+     * An entry whose checksum does not match is reported and skipped.
+     * @param dataFilePath The path of the data file
+     * @return The journal entries, or an empty list if there is no journal
+     * @throws IOException If there's an error reading the journal
+     */
+    public static List<JournalEntry> readJournal(String dataFilePath) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        Path journal = Paths.get(getJournalPath(dataFilePath));
+        if (Files.exists(journal)) {
+            scanJournal(Files.readAllBytes(journal), journal, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * Walks the framed entries of a journal, adding the readable ones to a list.
+     * @param entries Receives the entries, or null to only find where they end
+     * @return The offset just past the last complete entry
+     */
+    private static int scanJournal(byte[] bytes, Path journal, List<JournalEntry> entries) throws IOException {
+        int position = 0;
+        int end = 0;
+        while (position < bytes.length) {
+            if (bytes[position] == '\n') {
+                position++;
+                continue;
+            }
+            // The header never contains a line break, though a quoted field in the record may
+            int lineEnd = indexOf(bytes, (byte) '\n', position, bytes.length);
+            int headerLimit = lineEnd < 0 ? bytes.length : lineEnd;
+            int lengthEnd = indexOf(bytes, (byte) ',', position, headerLimit);
+            int crcEnd = lengthEnd < 0 ? -1 : indexOf(bytes, (byte) ',', lengthEnd + 1, headerLimit);
+            int length = -1;
+            long checksum = -1;
+            if (crcEnd >= 0) {
+                try {
+                    length = Integer.parseInt(new String(bytes, position, lengthEnd - position, StandardCharsets.US_ASCII));
+                    checksum = Long.parseLong(new String(bytes, lengthEnd + 1, crcEnd - lengthEnd - 1, StandardCharsets.US_ASCII), 16);
+                } catch (NumberFormatException e) {
+                    length = -1;
+                }
+            }
+            int start = crcEnd + 1;
+            boolean complete = length >= 0 && checksum >= 0
+                    && (long) start + length < bytes.length && bytes[start + length] == '\n';
+            if (complete) {
+                CRC32 crc = new CRC32();
+                crc.update(bytes, start, length);
+                complete = crc.getValue() == checksum;
+            }
+            if (!complete) {
+                if (lineEnd < 0) {
+                    // The entry or its line break never made it to disk
+                    if (entries != null) {
+                        System.err.println("Dropping incomplete journal entry at offset " + position + " in " + journal);
+                    }
+                    break;
+                }
+                if (entries != null) {
+                    System.err.println("Skipping corrupt journal entry at offset " + position + " in " + journal);
+                }
+                position = lineEnd + 1;
+                continue;
+            }
+            position = start + length + 1;
+            end = position;
+
+            if (entries != null) {
+                JournalEntry entry = parseJournalRecord(new String(bytes, start, length, StandardCharsets.UTF_8));
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return end;
+    }
+
+    private static JournalEntry parseJournalRecord(String record) throws IOException {
+        String[] parts;
+        try (CsvReader csv = new CsvReader(new StringReader(record))) {
+            parts = csv.readRecord();
+        }
+        if (parts == null || parts.length < 2) {
+            return null;
+        }
+        JournalOperation operation;
+        try {
+            operation = JournalOperation.valueOf(parts[0]);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown journal operation: " + parts[0]);
+            return null;
+        }
+        if (operation == JournalOperation.DELETE) {
+            return new JournalEntry(operation, parts[1], null);
+        }
+        Employee emp = parseRecord(parts, 1);
+        return emp == null ? null : new JournalEntry(operation, emp.getId(), emp);
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Deletes the journal of a data file, typically after a fresh snapshot has been written.
+     * @param dataFilePath The path of the data file
+     * @throws IOException If the journal exists but cannot be deleted
+     */
+    public static void clearJournal(String dataFilePath) throws IOException {
+        Files.deleteIfExists(Paths.get(getJournalPath(dataFilePath)));
+    }
+
     private static void createDefaultFile(String fileName) throws IOException {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(fileName))) {
+        writeTextAtomically(Paths.get(fileName), 0, bw -> {
             bw.write(HEADER);
             bw.newLine();
             
@@ -82,21 +720,22 @@ public class FileHandler {
             bw.write("Intern,Peter Parker,E003,Marketing,1500.0,Good,0.0,0.0");
             bw.newLine();
             // Add more default employees...
-        }
+        });
     }
 
+    // Fields arrive already trimmed by CsvReader, except quoted ones which are kept verbatim
     private static Employee createEmployeeFromCSV(String[] parts) {
-        String type = parts[0].trim();
-        String name = parts[1].trim();
-        String id = parts[2].trim();
-        String department = parts[3].trim();
-        double baseSalary = Double.parseDouble(parts[4].trim());
+        String type = parts[0];
+        String name = parts[1];
+        String id = parts[2];
+        String department = parts[3];
+        double baseSalary = Double.parseDouble(parts[4]);
         
         Employee emp = null;
         switch (type) {
             case "Manager":
                 emp = new Manager(id, name, department, baseSalary, 
-                    parts.length > 8 ? Integer.parseInt(parts[8].trim()) : 0);
+                    parts.length > 8 ? Integer.parseInt(parts[8]) : 0);
                 break;
             case "RegularEmployee":
                 emp = new RegularEmployee(id, name, department, baseSalary);
@@ -107,9 +746,10 @@ public class FileHandler {
         }
         
         if (emp != null && parts.length > 5) {
-            emp.setPerformanceRating(parts[5].trim());
-            if (parts.length > 6) emp.addBonus(Double.parseDouble(parts[6].trim()));
-            if (parts.length > 7) emp.addFine(Double.parseDouble(parts[7].trim()));
+            // Old files may hold free-form ratings; keep the employee and drop the rating
+            emp.setPerformanceRating(PerformanceRating.parseLenient(parts[5]));
+            if (parts.length > 6) emp.addBonus(Double.parseDouble(parts[6]));
+            if (parts.length > 7) emp.addFine(Double.parseDouble(parts[7]));
         }
         
         return emp;
@@ -118,11 +758,11 @@ public class FileHandler {
     private static String convertEmployeeToCSV(Employee emp) {
         StringBuilder sb = new StringBuilder();
         sb.append(emp.getClass().getSimpleName()).append(",");
-        sb.append(emp.getName()).append(",");
-        sb.append(emp.getId()).append(",");
-        sb.append(emp.getDepartment()).append(",");
+        sb.append(CsvReader.escape(emp.getName())).append(",");
+        sb.append(CsvReader.escape(emp.getId())).append(",");
+        sb.append(CsvReader.escape(emp.getDepartment())).append(",");
         sb.append(emp.getBaseSalary()).append(",");
-        sb.append(emp.getPerformanceRating()).append(",");
+        sb.append(emp.getPerformanceRating().getCode()).append(",");
         sb.append(emp.getBonus()).append(",");
         sb.append(emp.getFine());
         
@@ -132,4 +772,41 @@ public class FileHandler {
         
         return sb.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * Counts the bytes handed to the reader above it. The count runs ahead of the rows
+     * parsed by at most the reader's buffer, which is close enough for progress reporting.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,642 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import models.PerformanceEvent;
+
+/**
+ * An append-only, binary log of performance events with an in-memory index, so events
+ * for one employee or one date range are read straight from their offsets instead of
+ * scanning the log.
+ * <p>
+ * Each record is an int length followed by a type byte, the date as an epoch day, the
+ * amount as a double, and the employee ID and reason as length-prefixed UTF-8 strings.
+ * The index holds, per employee, the offset and date of each of their events (12 bytes
+ * per event), plus the date range of every block of {@value #BLOCK_SIZE} events for
+ * queries across all employees. The index is checkpointed to a side file on close and
+ * periodically while appending, so opening the log only reads the events written after
+ * the last checkpoint. Since a checkpoint rewrites the whole index, the gap between
+ * checkpoints grows with the log, keeping their cost per append constant.
+ * <p>
+ * When the log is opened, a record cut short by a crash at the end of the file is
+ * discarded. A malformed record further in is skipped by its length and reported, and
+ * a record whose length cannot be trusted fails the open rather than losing the events
+ * after it.
+ * <p>
+ * Since the log is never rewritten, removing an employee's events appends a removal
+ * record (type byte {@value #REMOVAL_TYPE}, with the employee ID and an empty reason);
+ * that employee's events before it are dropped from the index and skipped by every query.
+ * <p>
+ * Methods are synchronized, so one log can be shared between threads.
+ */
+public class PerformanceEventLog implements Closeable {
+    public static final String LOG_SUFFIX = ".events";
+    public static final String CHECKPOINT_SUFFIX = ".ckpt";
+    static final int BLOCK_SIZE = 1024;
+    static final int DEFAULT_CHECKPOINT_INTERVAL = 10_000;
+    // Checkpoints are also at least this fraction of the log apart
+    private static final int CHECKPOINT_SPACING_DIVISOR = 8;
+
+    private static final int CHECKPOINT_MAGIC = 0x454D5343; // "EMSC"
+    private static final int CHECKPOINT_VERSION = 2;
+    private static final int READ_BUFFER_SIZE = 256 * 1024;
+    // type + epoch day + amount + two string lengths
+    private static final int MIN_BODY_LENGTH = 1 + 4 + 8 + 4 + 4;
+    private static final PerformanceEvent.Type[] TYPES = PerformanceEvent.Type.values();
+    static final byte REMOVAL_TYPE = -1;
+
+    private final Path logPath;
+    private final Path checkpointPath;
+    private final FileChannel channel;
+    // End of the last complete record; appends go here
+    private long length;
+    private long eventCount;
+    // Events not hidden by a removal
+    private long visibleCount;
+    private final Map<String, EventList> byEmployee = new HashMap<>();
+    // Offset of the latest removal record per employee; their events before it are hidden
+    private final Map<String, Long> removedAt = new HashMap<>();
+    // Zone map: the start offset and date range of each block of BLOCK_SIZE events
+    private long[] blockOffsets = new long[16];
+    private int[] blockMinDays = new int[16];
+    private int[] blockMaxDays = new int[16];
+    private int blockCount;
+    private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+    private int sinceCheckpoint;
+
+    private PerformanceEventLog(Path logPath) throws IOException {
+        this.logPath = logPath;
+        this.checkpointPath = Paths.get(logPath + CHECKPOINT_SUFFIX);
+        this.channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens a log, creating it if it does not exist, and rebuilds its index from the
+     * last checkpoint plus any events appended after it.
+     * @param logPath The log file
+     * @return The open log
+     * @throws IOException If the log cannot be opened or read
+     */
+    public static PerformanceEventLog open(Path logPath) throws IOException {
+        PerformanceEventLog log = new PerformanceEventLog(logPath);
+        try {
+            log.recover();
+        } catch (IOException | RuntimeException e) {
+            log.channel.close();
+            throw e;
+        }
+        return log;
+    }
+
+    /**
+     * Opens the event log kept beside a data file, named dataFilePath + ".events".
+     */
+    public static PerformanceEventLog forDataFile(String dataFilePath) throws IOException {
+        return open(Paths.get(dataFilePath + LOG_SUFFIX));
+    }
+
+    public Path getPath() {
+        return logPath;
+    }
+
+    /**
+     * Gets the number of events in the log, not counting removed ones.
+     */
+    public synchronized long size() {
+        return visibleCount;
+    }
+
+    /**
+     * Sets how many events may be appended between index checkpoints, for logs small
+     * enough that an eighth of their size is below it. A smaller interval makes opening
+     * the log faster at the cost of writing the index more often.
+     * @param interval The number of events, at least 1
+     */
+    public synchronized void setCheckpointInterval(int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+        }
+        this.checkpointInterval = interval;
+    }
+
+    /**
+     * Appends an event to the log and indexes it.
+     * @param event The event to append
+     * @throws IOException If the event cannot be written
+     */
+    public synchronized void append(PerformanceEvent event) throws IOException {
+        long offset = write((byte) event.getType().ordinal(), (int) event.getDate().toEpochDay(),
+                event.getAmount(), event.getEmployeeId(), event.getReason());
+        index(event.getEmployeeId(), offset, (int) event.getDate().toEpochDay());
+        appended();
+    }
+
+    /**
+     * Removes every event recorded so far for an employee, e.g. when the employee is
+     * deleted, so a later employee given the same ID starts with no events.
+     * @param employeeId The employee ID
+     * @throws IOException If the removal cannot be written
+     */
+    public synchronized void removeEmployee(String employeeId) throws IOException {
+        if (!byEmployee.containsKey(employeeId)) {
+            return; // Nothing visible to remove
+        }
+        long offset = write(REMOVAL_TYPE, 0, 0, employeeId, "");
+        remove(employeeId, offset);
+        appended();
+    }
+
+    /**
+     * Writes one record at the end of the log.
+     * @return The offset of the record
+     */
+    private long write(byte type, int day, double amount, String employeeId, String reasonText) throws IOException {
+        byte[] id = employeeId.getBytes(StandardCharsets.UTF_8);
+        byte[] reason = reasonText.getBytes(StandardCharsets.UTF_8);
+        int bodyLength = MIN_BODY_LENGTH + id.length + reason.length;
+        ByteBuffer record = ByteBuffer.allocate(4 + bodyLength);
+        record.putInt(bodyLength);
+        record.put(type);
+        record.putInt(day);
+        record.putDouble(amount);
+        record.putInt(id.length).put(id);
+        record.putInt(reason.length).put(reason);
+        record.flip();
+
+        long offset = length;
+        while (record.hasRemaining()) {
+            channel.write(record, offset + record.position());
+        }
+        length = offset + 4 + bodyLength;
+        return offset;
+    }
+
+    private void appended() throws IOException {
+        sinceCheckpoint++;
+        if (checkpointDue()) {
+            checkpoint();
+        }
+    }
+
+    private void remove(String employeeId, long offset) {
+        EventList events = byEmployee.remove(employeeId);
+        if (events != null) {
+            visibleCount -= events.size;
+        }
+        removedAt.put(employeeId, offset);
+    }
+
+    /**
+     * Finds all events for an employee, in the order they were appended.
+     */
+    public List<PerformanceEvent> findByEmployee(String employeeId) throws IOException {
+        return findByEmployee(employeeId, null, null);
+    }
+
+    /**
+     * Finds an employee's events dated within a range, in the order they were appended.
+     * Only the matching records are read from the log.
+     * @param employeeId The employee ID
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching events
+     * @throws IOException If the log cannot be read
+     */
+    public synchronized List<PerformanceEvent> findByEmployee(String employeeId, LocalDate from, LocalDate to) throws IOException {
+        List<PerformanceEvent> result = new ArrayList<>();
+        EventList events = byEmployee.get(employeeId);
+        if (events == null) {
+            return result;
+        }
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        for (int i = 0; i < events.size; i++) {
+            if (events.days[i] >= fromDay && events.days[i] <= toDay) {
+                result.add(readAt(events.offsets[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the events of all employees dated within a range, in the order they were
+     * appended. Blocks of the log whose dates all fall outside the range are skipped.
+     * @param from The first date to include, or null for no lower bound
+     * @param to The last date to include, or null for no upper bound
+     * @return The matching events
+     * @throws IOException If the log cannot be read
+     */
+    public synchronized List<PerformanceEvent> findByDateRange(LocalDate from, LocalDate to) throws IOException {
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        long toDay = to == null ? Long.MAX_VALUE : to.toEpochDay();
+        List<PerformanceEvent> result = new ArrayList<>();
+        for (int block = 0; block < blockCount; block++) {
+            if (blockMaxDays[block] < fromDay || blockMinDays[block] > toDay) {
+                continue;
+            }
+            long end = block + 1 < blockCount ? blockOffsets[block + 1] : length;
+            RecordReader reader = new RecordReader(blockOffsets[block], end);
+            PerformanceEvent event;
+            while ((event = reader.next()) != null) {
+                long day = event.getDate().toEpochDay();
+                Long removed = removedAt.get(event.getEmployeeId());
+                if (day >= fromDay && day <= toDay && (removed == null || reader.eventOffset > removed)) {
+                    result.add(event);
+                }
+            }
+        }
+        return result;
+    }
+
+    public synchronized int countByEmployee(String employeeId) {
+        EventList events = byEmployee.get(employeeId);
+        return events == null ? 0 : events.size;
+    }
+
+    /**
+     * Writes the index to the checkpoint file. The log is flushed to disk first, so the
+     * checkpoint never describes events that could still be lost.
+     * @throws IOException If the checkpoint cannot be written
+     */
+    public synchronized void checkpoint() throws IOException {
+        channel.force(false);
+        FileHandler.writeAtomically(checkpointPath, out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(out), READ_BUFFER_SIZE));
+            data.writeInt(CHECKPOINT_MAGIC);
+            data.writeInt(CHECKPOINT_VERSION);
+            data.writeLong(length);
+            data.writeLong(eventCount);
+            data.writeInt(blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                data.writeLong(blockOffsets[block]);
+                data.writeInt(blockMinDays[block]);
+                data.writeInt(blockMaxDays[block]);
+            }
+            data.writeInt(byEmployee.size());
+            for (Map.Entry<String, EventList> entry : byEmployee.entrySet()) {
+                byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                data.writeInt(id.length);
+                data.write(id);
+                EventList events = entry.getValue();
+                data.writeInt(events.size);
+                for (int i = 0; i < events.size; i++) {
+                    data.writeLong(events.offsets[i]);
+                    data.writeInt(events.days[i]);
+                }
+            }
+            data.writeInt(removedAt.size());
+            for (Map.Entry<String, Long> entry : removedAt.entrySet()) {
+                byte[] id = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                data.writeInt(id.length);
+                data.write(id);
+                data.writeLong(entry.getValue());
+            }
+            data.flush();
+        });
+        sinceCheckpoint = 0;
+    }
+
+    /**
+     * Checkpoints the index if anything was appended since the last checkpoint, then
+     * closes the log.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (sinceCheckpoint > 0) {
+                checkpoint();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        if (!loadCheckpoint(fileSize)) {
+            resetIndex();
+        }
+        // Index whatever was appended after the checkpoint
+        RecordReader reader = new RecordReader(length, fileSize);
+        reader.applyRemovals = true;
+        while (true) {
+            PerformanceEvent event = reader.next();
+            if (event == null) {
+                break;
+            }
+            index(event.getEmployeeId(), reader.eventOffset, (int) event.getDate().toEpochDay());
+        }
+        long tail = reader.recordsRead;
+        length = reader.position;
+        if (reader.badLength && !isZeroFilled(length, fileSize)) {
+            throw new IOException("Corrupt performance event length at offset " + length + " in " + logPath);
+        }
+        if (length < fileSize) {
+            System.err.println("Discarding incomplete performance event at offset " + length + " in " + logPath);
+            channel.truncate(length);
+        }
+        sinceCheckpoint = (int) Math.min(tail, Integer.MAX_VALUE);
+        if (checkpointDue()) {
+            checkpoint();
+        }
+    }
+
+    /**
+     * Checks whether a region of the log holds only zeros, as a file extended by a crash
+     * before the record itself reached the disk can.
+     */
+    private boolean isZeroFilled(long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        for (long position = from; position < to; ) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    private boolean checkpointDue() {
+        return sinceCheckpoint >= Math.max(checkpointInterval, eventCount / CHECKPOINT_SPACING_DIVISOR);
+    }
+
+    private boolean loadCheckpoint(long fileSize) {
+        if (!Files.exists(checkpointPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(checkpointPath), READ_BUFFER_SIZE))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                return false;
+            }
+            long coveredLength = in.readLong();
+            if (coveredLength > fileSize) {
+                return false; // The log is shorter than the checkpoint says; trust the log
+            }
+            long count = in.readLong();
+            int blocks = in.readInt();
+            long[] offsets = new long[Math.max(16, blocks)];
+            int[] minDays = new int[offsets.length];
+            int[] maxDays = new int[offsets.length];
+            for (int block = 0; block < blocks; block++) {
+                offsets[block] = in.readLong();
+                minDays[block] = in.readInt();
+                maxDays[block] = in.readInt();
+            }
+            int employees = in.readInt();
+            Map<String, EventList> index = new HashMap<>(Math.max(16, employees * 2));
+            for (int e = 0; e < employees; e++) {
+                byte[] id = new byte[in.readInt()];
+                in.readFully(id);
+                int size = in.readInt();
+                EventList events = new EventList(size);
+                for (int i = 0; i < size; i++) {
+                    events.add(in.readLong(), in.readInt());
+                }
+                index.put(new String(id, StandardCharsets.UTF_8), events);
+            }
+            int removals = in.readInt();
+            Map<String, Long> removed = new HashMap<>(Math.max(16, removals * 2));
+            for (int r = 0; r < removals; r++) {
+                byte[] id = new byte[in.readInt()];
+                in.readFully(id);
+                removed.put(new String(id, StandardCharsets.UTF_8), in.readLong());
+            }
+            length = coveredLength;
+            eventCount = count;
+            blockOffsets = offsets;
+            blockMinDays = minDays;
+            blockMaxDays = maxDays;
+            blockCount = blocks;
+            byEmployee.clear();
+            byEmployee.putAll(index);
+            removedAt.clear();
+            removedAt.putAll(removed);
+            visibleCount = 0;
+            for (EventList events : index.values()) {
+                visibleCount += events.size;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable checkpoint " + checkpointPath + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void resetIndex() {
+        length = 0;
+        eventCount = 0;
+        visibleCount = 0;
+        blockCount = 0;
+        byEmployee.clear();
+        removedAt.clear();
+    }
+
+    private void index(String employeeId, long offset, int day) {
+        byEmployee.computeIfAbsent(employeeId, k -> new EventList(4)).add(offset, day);
+        if (eventCount % BLOCK_SIZE == 0) {
+            if (blockCount == blockOffsets.length) {
+                int capacity = blockCount * 2;
+                blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+                blockMinDays = Arrays.copyOf(blockMinDays, capacity);
+                blockMaxDays = Arrays.copyOf(blockMaxDays, capacity);
+            }
+            blockOffsets[blockCount] = offset;
+            blockMinDays[blockCount] = day;
+            blockMaxDays[blockCount] = day;
+            blockCount++;
+        } else {
+            int block = blockCount - 1;
+            blockMinDays[block] = Math.min(blockMinDays[block], day);
+            blockMaxDays[block] = Math.max(blockMaxDays[block], day);
+        }
+        eventCount++;
+        visibleCount++;
+    }
+
+    private PerformanceEvent readAt(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(header, offset);
+        header.flip();
+        ByteBuffer body = ByteBuffer.allocate(header.getInt());
+        readFully(body, offset + 4);
+        body.flip();
+        return decode(body);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + logPath);
+            }
+        }
+    }
+
+    private static PerformanceEvent decode(ByteBuffer body) {
+        int type = body.get();
+        LocalDate date = LocalDate.ofEpochDay(body.getInt());
+        double amount = body.getDouble();
+        String employeeId = readString(body);
+        String reason = readString(body);
+        return new PerformanceEvent(employeeId, TYPES[type], date, amount, reason);
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getInt()];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads events one after another from a region of the log through a large buffer,
+     * passing over removal records and records that cannot be decoded. Stops at the end
+     * of the region, at a record that runs past it, or at a record whose length is too
+     * short to be real, leaving position at the start of that record.
+     */
+    private class RecordReader {
+        private ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final long end;
+        // File offset of the next unread record, which is always at the buffer's position
+        private long position;
+        // File offset of the event last returned by next
+        private long eventOffset;
+        // Records read so far, removals included
+        private long recordsRead;
+        // Whether removal records passed over update the index and malformed records are
+        // reported, as when recovering it
+        private boolean applyRemovals;
+        // Whether reading stopped at a length too short for any record
+        private boolean badLength;
+
+        RecordReader(long start, long end) {
+            this.position = start;
+            this.end = end;
+            buffer.limit(0);
+        }
+
+        PerformanceEvent next() throws IOException {
+            while (true) {
+                if (!ensure(4)) {
+                    return null;
+                }
+                int bodyLength = buffer.getInt(buffer.position());
+                if (bodyLength < MIN_BODY_LENGTH) {
+                    badLength = true;
+                    return null;
+                }
+                if (bodyLength > end - position - 4 || !ensure(4 + bodyLength)) {
+                    return null;
+                }
+                ByteBuffer body = buffer.duplicate();
+                body.position(buffer.position() + 4).limit(buffer.position() + 4 + bodyLength);
+                PerformanceEvent event = null;
+                String removedId = null;
+                try {
+                    if (body.get(body.position()) == REMOVAL_TYPE) {
+                        body.position(body.position() + 1 + 4 + 8);
+                        removedId = readString(body);
+                    } else {
+                        event = decode(body);
+                    }
+                } catch (RuntimeException e) {
+                    // Malformed record; its length still leads to the next one
+                    if (applyRemovals) {
+                        System.err.println("Skipping malformed performance event at offset " + position + " in " + logPath);
+                    }
+                }
+                long offset = position;
+                buffer.position(buffer.position() + 4 + bodyLength);
+                position += 4 + bodyLength;
+                recordsRead++;
+                if (event != null) {
+                    eventOffset = offset;
+                    return event;
+                }
+                if (removedId != null && applyRemovals) {
+                    remove(removedId, offset);
+                }
+            }
+        }
+
+        /**
+         * Makes sure the buffer holds the next count bytes of the region, refilling it
+         * from the current position if needed.
+         */
+        private boolean ensure(int count) throws IOException {
+            if (end - position < count) {
+                return false;
+            }
+            if (buffer.remaining() >= count) {
+                return true;
+            }
+            if (count > buffer.capacity()) {
+                buffer = ByteBuffer.allocate(count); // A record larger than the usual buffer
+            }
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer.remaining() >= count;
+        }
+    }
+
+    /**
+     * A growable pair of parallel arrays holding the offset and date of each of one
+     * employee's events.
+     */
+    private static class EventList {
+        private long[] offsets;
+        private int[] days;
+        private int size;
+
+        EventList(int capacity) {
+            offsets = new long[Math.max(1, capacity)];
+            days = new int[offsets.length];
+        }
+
+        void add(long offset, int day) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                days = Arrays.copyOf(days, size * 2);
+            }
+            offsets[size] = offset;
+            days[size] = day;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import models.Performance;
+import models.PerformanceEvent;
+import models.PerformanceHistorySource;
+
+/**
+ * Keeps performance history on disk, apart from the roster, so loading the roster never
+ * reads it. Each employee's history is a series of CSV segment files of at most
+ * {@value #SEGMENT_SIZE} records in a directory next to the data file.
+ * <p>
+ * A record is one CSV line: the review date, rating and the four letter/bonus/fine flags,
+ * the number of entries, then four fields per entry: its type, its date as a number of
+ * days after the review date, its amount (blank when zero) and its reason. Reading a page
+ * opens only the segments that page falls in, and appending only touches the last one.
+ * <p>
+ * Segment files are named after the hex-encoded employee ID and the segment number,
+ * e.g. {@code 453031-0.hist} for ID "E01", so any ID maps to a valid file name and IDs
+ * differing only in case do not collide on case-insensitive file systems.
+ */
+public class PerformanceHistoryStore implements PerformanceHistorySource {
+    public static final String DIRECTORY_SUFFIX = ".history";
+    static final int SEGMENT_SIZE = 256;
+    private static final String SEGMENT_EXTENSION = ".hist";
+    private static final PerformanceEvent.Type[] TYPES = PerformanceEvent.Type.values();
+
+    private final Path directory;
+    // Record counts per employee, filled in on first use so appends know which segment to write
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+
+    public PerformanceHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Creates the store for a data file, kept in the directory dataFilePath + ".history".
+     * The directory is created when the first record is appended.
+     * @param dataFilePath The roster data file
+     * @return The store
+     */
+    public static PerformanceHistoryStore forDataFile(String dataFilePath) {
+        return new PerformanceHistoryStore(Paths.get(dataFilePath + DIRECTORY_SUFFIX));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public List<Performance> load(String employeeId) {
+        return loadPage(employeeId, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public synchronized List<Performance> loadPage(String employeeId, int offset, int limit) {
+        List<Performance> page = new ArrayList<>(Math.min(limit, SEGMENT_SIZE));
+        int segment = offset / SEGMENT_SIZE;
+        int skip = offset % SEGMENT_SIZE;
+        while (page.size() < limit) {
+            Path file = segmentPath(employeeId, segment);
+            if (!Files.exists(file)) {
+                break;
+            }
+            try (CsvReader reader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+                String[] parts;
+                while (page.size() < limit && (parts = reader.readRecord()) != null) {
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    Performance performance = parseRecord(employeeId, parts);
+                    if (performance != null) {
+                        page.add(performance);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading performance history for " + employeeId, e);
+            }
+            segment++;
+        }
+        return page;
+    }
+
+    @Override
+    public synchronized int count(String employeeId) {
+        Integer count = counts.get(employeeId);
+        if (count == null) {
+            count = countRecords(employeeId);
+            counts.put(employeeId, count);
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void append(String employeeId, Performance performance) {
+        int count = count(employeeId);
+        Path file = segmentPath(employeeId, count / SEGMENT_SIZE);
+        try {
+            Files.createDirectories(directory);
+            try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                bw.write(convertToCSV(performance));
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing performance history for " + employeeId, e);
+        }
+        counts.put(employeeId, count + 1);
+    }
+
+    /**
+     * Deletes an employee's history, e.g. when the employee is removed, so a later employee
+     * given the same ID starts with an empty history.
+     * @param employeeId The employee ID
+     */
+    public synchronized void delete(String employeeId) {
+        int last = 0;
+        while (Files.exists(segmentPath(employeeId, last + 1))) {
+            last++;
+        }
+        try {
+            // Newest first, so a failure part way leaves the oldest records rather than a gap
+            for (int segment = last; segment >= 0; segment--) {
+                Files.deleteIfExists(segmentPath(employeeId, segment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error deleting performance history for " + employeeId, e);
+        } finally {
+            counts.remove(employeeId);
+        }
+    }
+
+    private int countRecords(String employeeId) {
+        // Every segment but the last is full, so only the last one needs reading
+        int segment = 0;
+        while (Files.exists(segmentPath(employeeId, segment + 1))) {
+            segment++;
+        }
+        Path last = segmentPath(employeeId, segment);
+        if (!Files.exists(last)) {
+            return 0;
+        }
+        int records = 0;
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(last, StandardCharsets.UTF_8))) {
+            while (reader.readRecord() != null) {
+                records++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading performance history for " + employeeId, e);
+        }
+        return segment * SEGMENT_SIZE + records;
+    }
+
+    private Path segmentPath(String employeeId, int segment) {
+        byte[] bytes = employeeId.getBytes(StandardCharsets.UTF_8);
+        StringBuilder name = new StringBuilder(bytes.length * 2 + 12);
+        for (byte b : bytes) {
+            name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return directory.resolve(name.append('-').append(segment).append(SEGMENT_EXTENSION).toString());
+    }
+
+    private static String convertToCSV(Performance performance) {
+        List<PerformanceEvent> entries = performance.getEntries();
+        StringBuilder sb = new StringBuilder(64 + entries.size() * 32);
+        sb.append(performance.getDate()).append(",")
+                .append(CsvReader.escape(performance.getMonthlyRating())).append(",")
+                .append(performance.hasWarningLetter()).append(",")
+                .append(performance.hasAppreciationLetter()).append(",")
+                .append(performance.hasBonus()).append(",")
+                .append(performance.hasFine()).append(",")
+                .append(entries.size());
+        long reviewDay = performance.getDate().toEpochDay();
+        for (PerformanceEvent entry : entries) {
+            sb.append(",").append(entry.getType().ordinal())
+                    .append(",").append(entry.getDate().toEpochDay() - reviewDay)
+                    .append(",");
+            if (entry.getAmount() != 0) {
+                sb.append(entry.getAmount());
+            }
+            sb.append(",").append(CsvReader.escape(entry.getReason()));
+        }
+        return sb.toString();
+    }
+
+    private static Performance parseRecord(String employeeId, String[] parts) {
+        if (parts.length < 7) {
+            System.err.println("Skipping invalid history line: " + String.join(",", parts));
+            return null;
+        }
+        try {
+            LocalDate date = LocalDate.parse(parts[0]);
+            int count = Integer.parseInt(parts[6]);
+            if (parts.length != 7 + count * 4) {
+                throw new IllegalArgumentException("Expected " + count + " entries");
+            }
+            List<PerformanceEvent> entries = new ArrayList<>(count);
+            for (int i = 7; i < parts.length; i += 4) {
+                entries.add(new PerformanceEvent(employeeId, TYPES[Integer.parseInt(parts[i])],
+                        date.plusDays(Long.parseLong(parts[i + 1])),
+                        parts[i + 2].isEmpty() ? 0 : Double.parseDouble(parts[i + 2]), parts[i + 3]));
+            }
+            return new Performance(employeeId, parts[1], date,
+                    Boolean.parseBoolean(parts[2]), Boolean.parseBoolean(parts[3]),
+                    Boolean.parseBoolean(parts[4]), Boolean.parseBoolean(parts[5]), entries);
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing history line: " + String.join(",", parts));
+            return null;
+        }
+    }
+}
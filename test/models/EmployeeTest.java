@@ -0,0 +1,226 @@
+package models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class EmployeeTest {
+
+    /** Recomputes the salary from the getters, bypassing the cache. */
+    private static double expectedSalary(Employee emp) {
+        double salary = emp.getBaseSalary() + emp.getBonus() - emp.getFine();
+        if (emp instanceof Manager) {
+            salary += ((Manager) emp).getSubordinatesManaged() * 500.0;
+        }
+        return salary;
+    }
+
+    private static void assertFresh(Employee emp) {
+        // Called twice so the second call is served from the cache
+        assertEquals(expectedSalary(emp), emp.calculateSalary(), 1e-9);
+        assertEquals(expectedSalary(emp), emp.calculateSalary(), 1e-9);
+    }
+
+    @Test
+    public void testCacheFollowsEveryMutator() {
+        Employee[] employees = {
+                new Manager("M1", "Alice", "IT", 5000, 3),
+                new RegularEmployee("R1", "Bob", "HR", 3000, 150),
+                new Intern("I1", "Carol", "Ops", 1000)
+        };
+        for (Employee emp : employees) {
+            assertFresh(emp);
+            emp.setBaseSalary(emp.getBaseSalary() + 250);
+            assertFresh(emp);
+            emp.addBonus(100);
+            assertFresh(emp);
+            emp.setBonus(40);
+            assertFresh(emp);
+            emp.addFine(30);
+            assertFresh(emp);
+            emp.setFine(5);
+            assertFresh(emp);
+            if (emp instanceof Manager) {
+                ((Manager) emp).setSubordinatesManaged(7);
+                assertFresh(emp);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectedChangeKeepsCachedSalary() {
+        Employee emp = new RegularEmployee("R1", "Bob", "HR", 3000, 150);
+        double before = emp.calculateSalary();
+
+        assertThrows(IllegalArgumentException.class, () -> emp.setBaseSalary(-1));
+        assertThrows(IllegalArgumentException.class, () -> emp.addFine(-1));
+
+        assertEquals(before, emp.calculateSalary(), 1e-9);
+    }
+
+    @Test
+    public void testNonSalaryFieldsDoNotAffectSalary() {
+        Employee emp = new Intern("I1", "Carol", "Ops", 1000);
+        double before = emp.calculateSalary();
+
+        emp.setName("Caroline");
+        emp.setDepartment("IT");
+
+        assertEquals(before, emp.calculateSalary(), 1e-9);
+    }
+
+    @Test
+    public void testDepartmentIsPooled() {
+        Employee first = new Intern("I1", "Carol", new String("Ops"), 1000);
+        Employee second = new Intern("I2", "Dave", new String("Ops"), 1000);
+        assertSame(first.getDepartment(), second.getDepartment());
+
+        first.setDepartment(new String("Finance"));
+        second.setDepartment(new String("Finance"));
+
+        assertSame(first.getDepartment(), second.getDepartment());
+        assertNull(StringDictionary.lookup("never interned " + System.nanoTime()));
+    }
+
+    /** In-memory history source that counts how often it is read. */
+    private static class CountingSource implements PerformanceHistorySource {
+        private final Map<String, List<Performance>> records = new HashMap<>();
+        private int loads;
+        private int pageLoads;
+
+        @Override
+        public List<Performance> load(String employeeId) {
+            loads++;
+            return new ArrayList<>(records.getOrDefault(employeeId, List.of()));
+        }
+
+        @Override
+        public List<Performance> loadPage(String employeeId, int offset, int limit) {
+            pageLoads++;
+            List<Performance> all = records.getOrDefault(employeeId, List.of());
+            int from = Math.min(offset, all.size());
+            return new ArrayList<>(all.subList(from, Math.min(all.size(), from + limit)));
+        }
+
+        @Override
+        public int count(String employeeId) {
+            return records.getOrDefault(employeeId, List.of()).size();
+        }
+
+        @Override
+        public void append(String employeeId, Performance performance) {
+            records.computeIfAbsent(employeeId, k -> new ArrayList<>()).add(performance);
+        }
+    }
+
+    @Test
+    public void testHistoryLoadsLazilyFromSource() {
+        CountingSource source = new CountingSource();
+        for (int i = 0; i < 50; i++) {
+            source.append("R1", new Performance("R1", "3"));
+        }
+        Employee emp = new RegularEmployee("R1", "Bob", "HR", 3000);
+        emp.setPerformanceHistorySource(source);
+
+        assertEquals(50, emp.getPerformanceRecordCount());
+        assertEquals(10, emp.getPerformanceHistory(40, 20).size());
+        assertEquals(0, source.loads);
+        assertEquals(1, source.pageLoads);
+
+        List<Performance> history = emp.getPerformanceHistory();
+        assertEquals(50, history.size());
+        assertSame(history, emp.getPerformanceHistory()); // No copy per read
+        assertEquals(1, source.loads);
+        assertThrows(UnsupportedOperationException.class, () -> history.add(new Performance("R1", "1")));
+
+        List<Performance> page = emp.getPerformanceHistory(45, 10);
+        emp.addPerformanceRecord(new Performance("R1", "5"));
+        assertEquals(50, history.size());
+        assertEquals(5, page.size());
+        assertEquals(51, source.count("R1"));
+        assertEquals(51, emp.getPerformanceHistory().size());
+        assertEquals(1, emp.getPerformanceHistory(50, 5).size());
+    }
+
+    @Test
+    public void testRecordsAddedBeforeSourceAreWrittenToIt() {
+        Employee emp = new Intern("I1", "Carol", "Ops", 1000);
+        assertTrue(emp.getPerformanceHistory().isEmpty());
+        emp.addPerformanceRecord(new Performance("I1", "4"));
+        assertEquals(1, emp.getPerformanceHistory().size());
+
+        CountingSource source = new CountingSource();
+        emp.setPerformanceHistorySource(source);
+
+        assertEquals(1, source.count("I1"));
+        assertEquals(1, emp.getPerformanceHistory().size());
+    }
+
+    @Test
+    public void testRecordedPerformanceCannotChange() {
+        CountingSource source = new CountingSource();
+        Employee emp = new Intern("I2", "Dave", "Ops", 1000);
+        emp.setPerformanceHistorySource(source);
+        Performance review = new Performance("I2", "3");
+        review.issueWarningLetter("Late");
+        emp.addPerformanceRecord(review);
+
+        assertTrue(review.isRecorded());
+        assertThrows(IllegalStateException.class, () -> review.applyFine("Later"));
+        assertThrows(IllegalStateException.class, () -> review.setMonthlyRating("1"));
+        assertEquals(1, review.getEntries().size());
+        assertTrue(emp.getPerformanceHistory().get(0).isRecorded());
+    }
+
+    @Test
+    public void testSalaryAfterDeserialization() throws Exception {
+        Manager manager = new Manager("M1", "Alice", "IT", 5000, 2);
+        manager.calculateSalary();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(manager);
+        }
+        Manager copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Manager) in.readObject();
+        }
+
+        assertFresh(copy);
+        copy.setSubordinatesManaged(4);
+        assertFresh(copy);
+    }
+
+    @Test
+    public void testReadersNeverKeepStaleSalary() throws Exception {
+        RegularEmployee emp = new RegularEmployee("R1", "Bob", "HR", 1000);
+        Thread reader = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                emp.calculateSalary();
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 1; i <= 20000; i++) {
+                emp.setBaseSalary(1000 + i);
+            }
+        } finally {
+            reader.interrupt();
+            reader.join();
+        }
+        assertEquals(21000.0, emp.calculateSalary(), 1e-9);
+    }
+}
@@ -0,0 +1,70 @@
+package models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class PerformanceRatingTest {
+
+    @Test
+    public void testParsesNumericAndWordForms() {
+        assertEquals(PerformanceRating.OUTSTANDING, PerformanceRating.parse("5"));
+        assertEquals(PerformanceRating.OUTSTANDING, PerformanceRating.parse("Outstanding"));
+        assertEquals(PerformanceRating.GOOD, PerformanceRating.parse(" good "));
+        assertEquals(PerformanceRating.NEEDS_IMPROVEMENT, PerformanceRating.parse("Needs Improvement"));
+        assertEquals(PerformanceRating.POOR, PerformanceRating.parse("1"));
+        assertEquals(PerformanceRating.NOT_RATED, PerformanceRating.parse("N/A"));
+        assertEquals(PerformanceRating.NOT_RATED, PerformanceRating.parse(""));
+        assertEquals(PerformanceRating.NOT_RATED, PerformanceRating.parse(null));
+    }
+
+    @Test
+    public void testDisplaysLabelAndWritesCode() {
+        assertEquals("Outstanding", PerformanceRating.OUTSTANDING.toString());
+        assertEquals("5", PerformanceRating.OUTSTANDING.getCode());
+        Employee emp = new RegularEmployee("R1", "Ann", "IT", 50000, 0);
+        emp.setPerformanceRating(PerformanceRating.OUTSTANDING);
+        assertTrue(emp.toString().contains("Performance Rating: Outstanding"));
+    }
+
+    @Test
+    public void testRejectsUnknownValues() {
+        assertThrows(IllegalArgumentException.class, () -> PerformanceRating.parse("6"));
+        assertThrows(IllegalArgumentException.class, () -> PerformanceRating.parse("0"));
+        assertThrows(IllegalArgumentException.class, () -> PerformanceRating.parse("Superb"));
+        assertThrows(IllegalArgumentException.class, () -> PerformanceRating.fromScore(7));
+    }
+
+    @Test
+    public void testCodeRoundTripsAndOrdinalFollowsScore() {
+        PerformanceRating previous = null;
+        for (PerformanceRating rating : PerformanceRating.values()) {
+            assertEquals(rating, PerformanceRating.parse(rating.getCode()));
+            assertEquals(rating, PerformanceRating.parse(rating.getLabel()));
+            if (previous != null) {
+                assertEquals(previous.getScore() + 1, rating.getScore());
+            }
+            previous = rating;
+        }
+    }
+
+    @Test
+    public void testEmployeeRejectsInvalidRating() {
+        Employee emp = new Intern("I1", "Carol", "Ops", 1000);
+        emp.setPerformanceRating("Good");
+
+        assertThrows(IllegalArgumentException.class, () -> emp.setPerformanceRating("great"));
+        assertThrows(IllegalArgumentException.class, () -> emp.setPerformanceRating((PerformanceRating) null));
+        assertEquals(PerformanceRating.GOOD, emp.getPerformanceRating());
+    }
+
+    @Test
+    public void testLenientParseReadsUnknownAsNotRated() {
+        assertEquals(PerformanceRating.GOOD, PerformanceRating.parseLenient("good"));
+        assertEquals(PerformanceRating.NOT_RATED, PerformanceRating.parseLenient("Good+"));
+        assertEquals(PerformanceRating.NOT_RATED, PerformanceRating.parseLenient("7"));
+        assertThrows(IllegalArgumentException.class, () -> PerformanceRating.parse("Good+"));
+    }
+}
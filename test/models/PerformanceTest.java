@@ -0,0 +1,57 @@
+package models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class PerformanceTest {
+
+    @Test
+    public void testActionsRecordTypedEntries() {
+        Performance review = new Performance("E1", "3");
+        assertTrue(review.getEntries().isEmpty());
+        assertEquals("", review.getComments());
+
+        review.issueWarningLetter("Late");
+        review.awardBonus();
+        review.applyFine("Damaged laptop");
+        review.issueAppreciationLetter("Helped onboarding");
+
+        List<PerformanceEvent> entries = review.getEntries();
+        assertEquals(4, entries.size());
+        assertEquals(PerformanceEvent.Type.WARNING_LETTER, entries.get(0).getType());
+        assertEquals("Late", entries.get(0).getReason());
+        assertEquals("E1", entries.get(2).getEmployeeId());
+        assertTrue(review.hasWarningLetter() && review.hasBonus() && review.hasFine() && review.hasAppreciationLetter());
+        assertThrows(UnsupportedOperationException.class, () -> entries.add(entries.get(0)));
+
+        String today = LocalDate.now().toString();
+        assertEquals("[" + today + "] Warning Letter Issued: Late; [" + today + "] Bonus Awarded; ["
+                + today + "] Fine Applied: Damaged laptop; [" + today + "] Appreciation Letter Issued: Helped onboarding",
+                review.getComments());
+    }
+
+    @Test
+    public void testEntriesQueriedByTypeAndDate() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        Performance review = new Performance("E1", "2", start, true, false, false, true, List.of(
+                new PerformanceEvent("E1", PerformanceEvent.Type.WARNING_LETTER, start, 0, "First"),
+                new PerformanceEvent("E1", PerformanceEvent.Type.FINE, start.plusDays(5), 20, "Late"),
+                new PerformanceEvent("E1", PerformanceEvent.Type.WARNING_LETTER, start.plusDays(10), 0, "Second"),
+                new PerformanceEvent("E1", PerformanceEvent.Type.WARNING_LETTER, start.plusDays(20), 0, "Third")));
+
+        List<PerformanceEvent> warnings = review.getWarnings(start.plusDays(1), start.plusDays(20));
+        assertEquals(2, warnings.size());
+        assertEquals("Second", warnings.get(0).getReason());
+        assertEquals("Third", warnings.get(1).getReason());
+        assertEquals(3, review.getWarnings(null, null).size());
+        assertEquals(4, review.getEntries(null, null, null).size());
+        assertEquals(1, review.getEntries(PerformanceEvent.Type.FINE, null, start.plusDays(5)).size());
+        assertTrue(review.getEntries(PerformanceEvent.Type.BONUS, null, null).isEmpty());
+    }
+}
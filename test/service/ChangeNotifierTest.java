@@ -0,0 +1,81 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+
+public class ChangeNotifierTest {
+
+    @Test
+    public void testEditsOfOneEmployeeAreMerged() {
+        Employee a = new Intern("A", "Ann", "IT", 1000);
+        Employee b = new Intern("B", "Ben", "IT", 1000);
+
+        List<EmployeeChange> merged = ChangeNotifier.coalesce(List.of(
+                EmployeeChange.updated(a),
+                EmployeeChange.added(b),
+                EmployeeChange.updated(a),
+                EmployeeChange.updated(b)));
+
+        assertEquals(2, merged.size());
+        assertEquals(EmployeeChange.Type.UPDATED, merged.get(0).getType());
+        assertSame(a, merged.get(0).getEmployee());
+        assertEquals(EmployeeChange.Type.ADDED, merged.get(1).getType());
+        assertSame(b, merged.get(1).getEmployee());
+    }
+
+    @Test
+    public void testAddThenRemoveCancelsOut() {
+        Employee a = new Intern("A", "Ann", "IT", 1000);
+        Employee b = new Intern("B", "Ben", "IT", 1000);
+
+        List<EmployeeChange> merged = ChangeNotifier.coalesce(List.of(
+                EmployeeChange.added(a),
+                EmployeeChange.updated(b),
+                EmployeeChange.updated(a),
+                EmployeeChange.removed(a),
+                EmployeeChange.removed(b)));
+
+        assertEquals(1, merged.size());
+        assertEquals(EmployeeChange.Type.REMOVED, merged.get(0).getType());
+        assertEquals("B", merged.get(0).getEmployeeId());
+    }
+
+    @Test
+    public void testReplacingAnEmployeeKeepsRemoveAndAdd() {
+        Employee old = new Intern("A", "Ann", "IT", 1000);
+        Employee replacement = new Intern("A", "Ann", "HR", 1200);
+
+        List<EmployeeChange> merged = ChangeNotifier.coalesce(List.of(
+                EmployeeChange.removed(old),
+                EmployeeChange.added(replacement),
+                EmployeeChange.updated(replacement)));
+
+        assertEquals(2, merged.size());
+        assertEquals(EmployeeChange.Type.REMOVED, merged.get(0).getType());
+        assertSame(old, merged.get(0).getEmployee());
+        assertEquals(EmployeeChange.Type.ADDED, merged.get(1).getType());
+        assertSame(replacement, merged.get(1).getEmployee());
+    }
+
+    @Test
+    public void testReloadDiscardsEarlierChanges() {
+        Employee a = new Intern("A", "Ann", "IT", 1000);
+        Employee b = new Intern("B", "Ben", "IT", 1000);
+
+        List<EmployeeChange> merged = ChangeNotifier.coalesce(List.of(
+                EmployeeChange.added(a),
+                EmployeeChange.reloaded(),
+                EmployeeChange.updated(b)));
+
+        assertEquals(2, merged.size());
+        assertEquals(EmployeeChange.Type.RELOADED, merged.get(0).getType());
+        assertEquals(EmployeeChange.Type.UPDATED, merged.get(1).getType());
+    }
+}
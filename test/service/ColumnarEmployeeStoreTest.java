@@ -0,0 +1,137 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.EmployeeView;
+import models.Intern;
+import models.Manager;
+import models.RegularEmployee;
+
+public class ColumnarEmployeeStoreTest {
+
+    private static List<Employee> roster() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Employee emp;
+            switch (i % 3) {
+                case 0: emp = new Manager("M" + i, "Manager " + i, "D" + (i % 5), 5000 + i, i % 4); break;
+                case 1: emp = new RegularEmployee("R" + i, "Regular " + i, "D" + (i % 5), 3000 + i, i); break;
+                default: emp = new Intern("I" + i, "Intern " + i, "D" + (i % 5), 1000 + i); break;
+            }
+            emp.addFine(i % 7);
+            emp.setPerformanceRating(String.valueOf(i % 5 + 1));
+            employees.add(emp);
+        }
+        return employees;
+    }
+
+    @Test
+    public void testAggregationsMatchObjects() {
+        List<Employee> employees = roster();
+        ColumnarEmployeeStore store = ColumnarEmployeeStore.of(employees);
+
+        PayrollReport expected = new PayrollEngine().run(employees);
+        PayrollReport actual = store.runPayroll();
+
+        assertEquals(300, store.size());
+        assertEquals(expected.getTotalPayroll(), store.totalPayroll(), 1e-6);
+        assertEquals(expected.getTotalPayroll(), actual.getTotalPayroll(), 1e-6);
+        assertEquals(expected.getMinSalary(), actual.getMinSalary(), 1e-9);
+        assertEquals(expected.getMaxSalary(), actual.getMaxSalary(), 1e-9);
+        assertEquals(expected.getPercentile(90), actual.getPercentile(90), 1e-9);
+        assertEquals(expected.getHeadcountByType(), actual.getHeadcountByType());
+        for (Map.Entry<String, Double> entry : expected.getTotalsByDepartment().entrySet()) {
+            assertEquals(entry.getValue(), store.totalPayrollByDepartment().get(entry.getKey()), 1e-6);
+            assertEquals(entry.getValue(), actual.getTotalsByDepartment().get(entry.getKey()), 1e-6);
+        }
+        for (Map.Entry<String, Double> entry : expected.getTotalsByType().entrySet()) {
+            assertEquals(entry.getValue(), actual.getTotalsByType().get(entry.getKey()), 1e-6);
+        }
+    }
+
+    @Test
+    public void testMaterializeRoundTrip() {
+        List<Employee> employees = roster();
+        ColumnarEmployeeStore store = ColumnarEmployeeStore.of(employees);
+
+        List<Employee> copies = store.materializeAll();
+
+        for (int i = 0; i < employees.size(); i++) {
+            Employee original = employees.get(i);
+            Employee copy = copies.get(i);
+            assertEquals(original.getClass(), copy.getClass());
+            assertEquals(original.getId(), copy.getId());
+            assertEquals(original.getName(), copy.getName());
+            assertEquals(original.getDepartment(), copy.getDepartment());
+            assertEquals(original.getPerformanceRating(), copy.getPerformanceRating());
+            assertEquals(original.calculateSalary(), copy.calculateSalary(), 1e-9);
+        }
+    }
+
+    @Test
+    public void testViewReadsCurrentColumnValues() {
+        ColumnarEmployeeStore store = new ColumnarEmployeeStore(1);
+        int internRow = store.add(new Intern("I1", "Carol", "Ops", 1000));
+        int row = store.add(new Manager("M1", "Alice", "IT", 5000, 2));
+
+        EmployeeView view = store.view(row);
+        assertEquals("M1", view.getId());
+        assertEquals("Manager", view.getTypeName());
+        assertEquals(2, view.getSubordinatesManaged());
+        assertEquals(6000.0, view.calculateSalary(), 1e-9);
+
+        store.setBaseSalary(row, 7000);
+        store.setBonus(row, 300);
+        store.setFine(row, 100);
+        store.setSubordinatesManaged(row, 3);
+        store.setDepartment(row, "Finance");
+        store.setName(row, "Alicia");
+
+        assertEquals(8700.0, store.calculateSalary(row), 1e-9);
+        assertEquals(8700.0, view.calculateSalary(), 1e-9);
+        assertEquals("Finance", view.getDepartment());
+        assertEquals("Alicia", view.getName());
+        assertTrue(view.toString().contains("Type: Manager"));
+
+        assertThrows(IllegalArgumentException.class, () -> store.setBonus(row, -1));
+        assertThrows(IllegalArgumentException.class, () -> store.setSubordinatesManaged(internRow, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.view(2));
+    }
+
+    @Test
+    public void testPayrollOverViewsGroupsByRealType() {
+        List<Employee> employees = roster();
+        ColumnarEmployeeStore store = ColumnarEmployeeStore.of(employees);
+        List<EmployeeView> views = new ArrayList<>();
+        for (int row = 0; row < store.size(); row++) {
+            views.add(store.view(row));
+        }
+
+        PayrollReport expected = new PayrollEngine().run(employees);
+        PayrollReport actual = new PayrollEngine().run(views);
+
+        assertEquals(expected.getHeadcountByType(), actual.getHeadcountByType());
+        assertEquals(expected.getTotalPayroll(), actual.getTotalPayroll(), 1e-6);
+        for (Map.Entry<String, Double> entry : expected.getTotalsByType().entrySet()) {
+            assertEquals(entry.getValue(), actual.getTotalsByType().get(entry.getKey()), 1e-6);
+        }
+    }
+
+    @Test
+    public void testEmptyStore() {
+        ColumnarEmployeeStore store = new ColumnarEmployeeStore();
+
+        assertEquals(0.0, store.totalPayroll(), 1e-9);
+        assertEquals(0, store.runPayroll().getEmployeeCount());
+        assertTrue(store.totalPayrollByDepartment().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+
+public class EmployeeCursorTest {
+
+    private static List<Employee> roster(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(new Intern("I" + i, "Intern " + i, "IT", 1000));
+        }
+        return employees;
+    }
+
+    @Test
+    public void testPagesOverSnapshot() {
+        List<Employee> employees = roster(25);
+        EmployeeCursor cursor = EmployeeCursor.of(EmployeeSnapshot.of(employees, 1), 10);
+
+        assertEquals(3, cursor.getPageCount());
+        assertEquals(employees.subList(0, 10), cursor.currentPage());
+        assertFalse(cursor.hasPrevious());
+        assertEquals(employees.subList(10, 20), cursor.next());
+        assertEquals(employees.subList(20, 25), cursor.next());
+        assertFalse(cursor.hasNext());
+        assertThrows(NoSuchElementException.class, cursor::next);
+        assertEquals(employees.subList(10, 20), cursor.previous());
+        assertEquals(1, cursor.getPageNumber());
+    }
+
+    @Test
+    public void testJumpAndResize() {
+        List<Employee> employees = roster(100);
+        EmployeeCursor cursor = EmployeeCursor.of(employees, 10);
+
+        assertEquals(employees.subList(70, 80), cursor.jumpToPage(7));
+        assertThrows(IllegalArgumentException.class, () -> cursor.jumpToPage(10));
+
+        // The page holding employee 70 is now page 2 of 4
+        cursor.setPageSize(30);
+        assertEquals(60, cursor.getOffset());
+        assertEquals(2, cursor.getPageNumber());
+        assertEquals(4, cursor.getPageCount());
+        assertEquals(employees.subList(60, 90), cursor.currentPage());
+        assertThrows(IllegalArgumentException.class, () -> cursor.setPageSize(0));
+    }
+
+    @Test
+    public void testEmptyListHasOneEmptyPage() {
+        EmployeeCursor cursor = EmployeeCursor.of(new ArrayList<>(), 10);
+
+        assertEquals(1, cursor.getPageCount());
+        assertTrue(cursor.currentPage().isEmpty());
+        assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testWriteAllWritesEveryEmployee() throws IOException {
+        List<Employee> employees = roster(7);
+        EmployeeCursor cursor = EmployeeCursor.of(EmployeeSnapshot.of(employees, 1), 3);
+        cursor.next();
+
+        StringWriter out = new StringWriter();
+        cursor.writeAll(out);
+
+        String[] lines = out.toString().split(System.lineSeparator());
+        assertEquals(7, lines.length);
+        assertEquals(employees.get(0).toString(), lines[0]);
+        assertEquals(3, cursor.getOffset());
+    }
+}
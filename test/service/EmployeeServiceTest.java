@@ -4,14 +4,31 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,9 +37,14 @@ import org.junit.jupiter.api.Test;
 import models.Employee;
 import models.Intern;
 import models.Manager;
+import models.Performance;
+import models.PerformanceEvent;
+import models.PerformanceRating;
 import models.RegularEmployee;
 import service.EmployeeService.SortCriteria;
 import util.FileHandler;
+import util.PerformanceEventLog;
+import util.PerformanceHistoryStore;
 
 public class EmployeeServiceTest {
 
@@ -154,6 +176,121 @@ public class EmployeeServiceTest {
         assertEquals("Grace Hall", loadedEmployees.get(0).getName());
     }
 
+    @Test
+    public void testMonitoredLoadPublishesBatches() {
+        for (int i = 0; i < 12000; i++) {
+            employeeService.addEmployee(new Intern("I" + i, "Intern " + i, "IT", 1000));
+        }
+        employeeService.saveChanges();
+
+        EmployeeService newService = new EmployeeService();
+        List<Integer> batchSizes = new ArrayList<>();
+        long[] lastProgress = new long[2];
+        boolean finished = newService.loadEmployeesFromFile(TEST_DATA_FILE, new LoadMonitor() {
+            @Override
+            public void rowsLoaded(List<Employee> rows, long bytesRead, long totalBytes) {
+                batchSizes.add(rows.size());
+                lastProgress[0] = bytesRead;
+                lastProgress[1] = totalBytes;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return false;
+            }
+        });
+
+        assertTrue(finished);
+        assertEquals(12000, newService.getEmployees().size());
+        assertEquals(List.of(5000, 5000, 2000), batchSizes);
+        assertEquals(lastProgress[1], lastProgress[0]);
+    }
+
+    @Test
+    public void testCancelledLoadLeavesRosterUnchanged() {
+        for (int i = 0; i < 12000; i++) {
+            employeeService.addEmployee(new Intern("I" + i, "Intern " + i, "IT", 1000));
+        }
+        employeeService.saveChanges();
+        employeeService.clearEmployees();
+        employeeService.addEmployee(new Intern("KEEP", "Kept", "HR", 1000));
+
+        int[] batches = new int[1];
+        boolean finished = employeeService.loadEmployeesFromFile(TEST_DATA_FILE, new LoadMonitor() {
+            @Override
+            public void rowsLoaded(List<Employee> rows, long bytesRead, long totalBytes) {
+                batches[0]++;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return batches[0] > 0;
+            }
+        });
+
+        assertFalse(finished);
+        assertEquals(1, batches[0]);
+        assertEquals(1, employeeService.getEmployees().size());
+        assertEquals("KEEP", employeeService.getEmployees().get(0).getId());
+    }
+
+    @Test
+    public void testChangeListenerReceivesMergedBatches() throws InterruptedException {
+        BlockingQueue<List<EmployeeChange>> batches = new LinkedBlockingQueue<>();
+        employeeService.addChangeListener(batches::add);
+
+        Employee emp = new RegularEmployee("E100", "Olive Park", "IT", 50000);
+        employeeService.addEmployee(emp);
+        emp.setDepartment("HR");
+        employeeService.updateEmployee(emp);
+        employeeService.addEmployee(new Intern("I100", "Sam Lee", "IT", 20000));
+        employeeService.deleteEmployee("I100");
+
+        // A slow machine may split the burst; merged together, the batches must still agree
+        List<EmployeeChange> received = new ArrayList<>(batches.poll(5, TimeUnit.SECONDS));
+        for (List<EmployeeChange> batch; (batch = batches.poll(500, TimeUnit.MILLISECONDS)) != null; ) {
+            received.addAll(batch);
+        }
+        List<EmployeeChange> merged = ChangeNotifier.coalesce(received);
+        assertEquals(1, merged.size());
+        assertEquals(EmployeeChange.Type.ADDED, merged.get(0).getType());
+        assertSame(emp, merged.get(0).getEmployee());
+
+        employeeService.clearEmployees();
+        List<EmployeeChange> reload = batches.poll(5, TimeUnit.SECONDS);
+        assertNotNull(reload);
+        assertEquals(EmployeeChange.Type.RELOADED, reload.get(0).getType());
+    }
+
+    @Test
+    public void testSearchMatchesNameIdAndDepartment() {
+        Employee ann = new RegularEmployee("E200", "Ann Mills", "Sales", 40000);
+        Employee bob = new RegularEmployee("S300", "Bob Kerr", "IT", 40000);
+        Employee cat = new Intern("E201", "Cat Sandoval", "HR", 20000);
+        employeeService.addEmployee(ann);
+        employeeService.addEmployee(bob);
+        employeeService.addEmployee(cat);
+
+        // "s" is in every name, so every employee matches
+        assertEquals(3, employeeService.searchEmployees("s").size());
+        // Name contains "san", department "Sales" does not start with it
+        assertEquals(List.of(cat), employeeService.searchEmployees("san"));
+        // ID prefix
+        assertEquals(List.of(ann, cat), employeeService.searchEmployees("e20"));
+        // Department prefix, ignoring case
+        assertEquals(List.of(ann), employeeService.searchEmployees("SAL"));
+        // An ID suffix is not a match
+        assertTrue(employeeService.searchEmployees("300").isEmpty());
+
+        for (String query : List.of("s", "san", "e20", "SAL", "300", "mill")) {
+            List<Employee> expected = employeeService.searchEmployees(query);
+            Predicate<Employee> filter = EmployeeService.searchFilter(query);
+            for (Employee emp : List.of(ann, bob, cat)) {
+                assertEquals(expected.contains(emp), filter.test(emp), query + " / " + emp.getId());
+            }
+        }
+    }
+
     @Test
     public void testFindInEmptyList() {
         Optional<Employee> found = employeeService.findEmployeeById("E999");
@@ -166,10 +303,571 @@ public class EmployeeServiceTest {
         assertTrue(employeeService.getEmployees().isEmpty());
     }
 
+    @Test
+    public void testAddDuplicateIdRejected() {
+        employeeService.addEmployee(new RegularEmployee("E010", "Henry Ford", "IT", 50000, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.addEmployee(new Intern("E010", "Ivy Lane", "HR", 20000)));
+        assertEquals(1, employeeService.getEmployees().size());
+        assertEquals("Henry Ford", employeeService.findEmployeeById("E010").get().getName());
+    }
+
+    @Test
+    public void testIndexConsistentAfterLoad() {
+        employeeService.addEmployee(new RegularEmployee("E011", "Jack Black", "IT", 50000, 0));
+        employeeService.addEmployee(new Intern("E012", "Kate Moss", "HR", 20000));
+        employeeService.addEmployee(new Manager("E013", "Liam Neeson", "IT", 90000, 3));
+
+        employeeService.loadEmployeesFromFile(TEST_DATA_FILE);
+
+        assertIndexConsistent(employeeService);
+        assertEquals(3, employeeService.getEmployees().size());
+        assertSame(employeeService.getEmployees().get(2), employeeService.findEmployeeById("E013").get());
+    }
+
+    @Test
+    public void testIndexConsistentAfterClear() {
+        employeeService.addEmployee(new RegularEmployee("E014", "Mia Wong", "IT", 50000, 0));
+
+        employeeService.clearEmployees();
+
+        assertIndexConsistent(employeeService);
+        assertFalse(employeeService.findEmployeeById("E014").isPresent());
+        // The ID is free again after clearing
+        employeeService.addEmployee(new Intern("E014", "Noah Park", "HR", 20000));
+        assertEquals("Noah Park", employeeService.findEmployeeById("E014").get().getName());
+    }
+
+    @Test
+    public void testIndexConsistentAfterSortAndDelete() {
+        employeeService.addEmployee(new RegularEmployee("E017", "Quinn Adams", "IT", 50000, 0));
+        employeeService.addEmployee(new RegularEmployee("E015", "Olivia Stone", "HR", 60000, 0));
+        employeeService.addEmployee(new RegularEmployee("E016", "Paul Reed", "IT", 70000, 0));
+
+        employeeService.sortEmployees(SortCriteria.BY_NAME);
+        assertIndexConsistent(employeeService);
+
+        assertTrue(employeeService.deleteEmployee("E015"));
+        assertIndexConsistent(employeeService);
+        assertFalse(employeeService.findEmployeeById("E015").isPresent());
+        assertEquals("Paul Reed", employeeService.getEmployees().get(0).getName());
+    }
+
+    @Test
+    public void testFindEmployeesByNamePrefixAndSubstring() {
+        employeeService.addEmployee(new RegularEmployee("E020", "Rachel Green", "HR", 50000, 0));
+        employeeService.addEmployee(new RegularEmployee("E021", "Ross Geller", "IT", 60000, 0));
+        employeeService.addEmployee(new Intern("E022", "Monica Geller", "IT", 20000));
+
+        assertEquals(2, employeeService.findEmployeesByNamePrefix("r").size());
+        assertEquals(1, employeeService.findEmployeesByNamePrefix("ROSS").size());
+        List<Employee> gellers = employeeService.findEmployeesByName("geller");
+        assertEquals(2, gellers.size());
+        assertEquals("Monica Geller", gellers.get(0).getName());
+        assertEquals(3, employeeService.findEmployeesByName("").size());
+    }
+
+    @Test
+    public void testNameSubstringSearchMatchesScan() {
+        Random random = new Random(11);
+        String[] parts = {"ann", "anna", "nan", "bob", "Bobby", "o'neil", "al", "x"};
+        for (int i = 0; i < 200; i++) {
+            String name = parts[random.nextInt(parts.length)] + " " + parts[random.nextInt(parts.length)];
+            employeeService.addEmployee(new Intern("S" + i, name, "IT", 1000));
+        }
+        for (int i = 0; i < 100; i++) {
+            String id = "S" + random.nextInt(200);
+            if (random.nextBoolean()) {
+                employeeService.deleteEmployee(id);
+            } else {
+                employeeService.findEmployeeById(id).ifPresent(emp -> {
+                    emp.setName(parts[random.nextInt(parts.length)] + "nn");
+                    employeeService.updateEmployee(emp);
+                });
+            }
+        }
+
+        for (String query : new String[]{"", "n", "AN", "ann", "nna", "anan", "bob", "by b", "'ne", "zzz", "xnn"}) {
+            Set<String> expected = new HashSet<>();
+            for (Employee emp : employeeService.getEmployees()) {
+                if (emp.getName().toLowerCase().contains(query.toLowerCase())) {
+                    expected.add(emp.getId());
+                }
+            }
+            List<Employee> found = employeeService.findEmployeesByName(query);
+            Set<String> actual = new HashSet<>();
+            for (int i = 0; i < found.size(); i++) {
+                actual.add(found.get(i).getId());
+                if (i > 0) {
+                    assertTrue(found.get(i - 1).getName().compareToIgnoreCase(found.get(i).getName()) <= 0);
+                }
+            }
+            assertEquals(expected.size(), found.size(), query);
+            assertEquals(expected, actual, query);
+        }
+    }
+
+    @Test
+    public void testPrefixOnlyIndexScansForSubstrings() {
+        TextIndex withTrigrams = new TextIndex(Employee::getId);
+        TextIndex prefixOnly = new TextIndex(Employee::getId, false);
+        for (int i = 0; i < 50; i++) {
+            Employee emp = new Intern("ID-" + i, "Intern " + i, "IT", 1000);
+            withTrigrams.add(emp);
+            prefixOnly.add(emp);
+        }
+
+        for (String query : new String[]{"", "1", "-1", "d-4", "id-49", "x"}) {
+            assertEquals(withTrigrams.findBySubstring(query), prefixOnly.findBySubstring(query), query);
+        }
+        assertEquals(11, prefixOnly.findByPrefix("id-1").size());
+    }
+
+    @Test
+    public void testSecondaryIndexesFollowUpdatesAndDeletes() {
+        Employee emp = new RegularEmployee("E023", "Chandler Bing", "Finance", 55000, 0);
+        employeeService.addEmployee(emp);
+
+        emp.setName("Chanandler Bong");
+        emp.setDepartment("Marketing");
+        employeeService.updateEmployee(emp);
+
+        assertTrue(employeeService.findEmployeesByName("bing").isEmpty());
+        assertEquals(1, employeeService.findEmployeesByName("bong").size());
+        assertTrue(employeeService.findEmployeesByDepartment("finance").isEmpty());
+        assertEquals(1, employeeService.findEmployeesByDepartment("MARKETING").size());
+
+        employeeService.deleteEmployee("E023");
+        assertTrue(employeeService.findEmployeesByName("bong").isEmpty());
+        assertTrue(employeeService.findEmployeesByDepartment("marketing").isEmpty());
+    }
+
+    @Test
+    public void testUpdateByIdAppliesEditAndReindexes() {
+        employeeService.addEmployee(new RegularEmployee("E024", "Monica Geller", "Catering", 48000, 0));
+
+        Employee updated = employeeService.updateEmployee("E024", emp -> {
+            emp.setName("Monica Bing");
+            emp.setBaseSalary(52000);
+        });
+
+        assertEquals(52000, updated.getBaseSalary(), 0.001);
+        assertTrue(employeeService.findEmployeesByName("geller").isEmpty());
+        assertEquals(1, employeeService.findEmployeesByName("bing").size());
+        assertThrows(IllegalArgumentException.class, () -> employeeService.updateEmployee("E999", emp -> { }));
+    }
+
+    @Test
+    public void testRatingIndexMatchesScan() {
+        Random random = new Random(17);
+        PerformanceRating[] ratings = PerformanceRating.values();
+        for (int i = 0; i < 300; i++) {
+            Employee emp = new Intern("I" + i, "Intern " + i, "IT", 1000);
+            emp.setPerformanceRating(ratings[random.nextInt(ratings.length)]);
+            employeeService.addEmployee(emp);
+        }
+        for (int i = 0; i < 300; i++) {
+            String id = "I" + random.nextInt(300);
+            if (random.nextBoolean()) {
+                employeeService.deleteEmployee(id);
+            } else {
+                employeeService.findEmployeeById(id).ifPresent(emp -> {
+                    emp.setPerformanceRating(ratings[random.nextInt(ratings.length)]);
+                    employeeService.updateEmployee(emp);
+                });
+            }
+        }
+        employeeService.addEmployee(new Intern("I-new", "Newcomer", "IT", 1000));
+
+        for (PerformanceRating minimum : ratings) {
+            Set<String> expected = new HashSet<>();
+            for (Employee emp : employeeService.getEmployees()) {
+                if (emp.getPerformanceRating().compareTo(minimum) >= 0) {
+                    expected.add(emp.getId());
+                }
+            }
+            Set<String> actual = new HashSet<>();
+            for (Employee emp : employeeService.findEmployeesByMinimumRating(minimum)) {
+                assertTrue(actual.add(emp.getId()));
+            }
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), employeeService.countEmployeesByMinimumRating(minimum));
+        }
+    }
+
+    @Test
+    public void testSortByPerformanceRatingUsesRatingOrder() {
+        String[] ratings = {"Outstanding", "2", "N/A", "Good", "1"};
+        for (int i = 0; i < ratings.length; i++) {
+            Employee emp = new Intern("I" + i, "Intern " + i, "IT", 1000);
+            emp.setPerformanceRating(ratings[i]);
+            employeeService.addEmployee(emp);
+        }
+
+        List<PerformanceRating> expected = List.of(PerformanceRating.NOT_RATED, PerformanceRating.POOR,
+                PerformanceRating.NEEDS_IMPROVEMENT, PerformanceRating.GOOD, PerformanceRating.OUTSTANDING);
+        List<PerformanceRating> fromView = new ArrayList<>();
+        for (Employee emp : employeeService.getSortedEmployees(SortCriteria.BY_PERFORMANCE_RATING)) {
+            fromView.add(emp.getPerformanceRating());
+        }
+        assertEquals(expected, fromView);
+
+        employeeService.sortEmployees(SortCriteria.BY_PERFORMANCE_RATING);
+        List<PerformanceRating> stored = new ArrayList<>();
+        for (Employee emp : employeeService.getEmployees()) {
+            stored.add(emp.getPerformanceRating());
+        }
+        assertEquals(expected, stored);
+    }
+
+    @Test
+    public void testPerformanceHistoryPersistsBesideRoster() {
+        Employee emp = new RegularEmployee("E030", "Monica Geller", "Kitchen", 52000, 0);
+        emp.addPerformanceRecord(new Performance("E030", "5"));
+        employeeService.addEmployee(emp);
+        Performance review = new Performance("E030", "4");
+        review.issueWarningLetter("Too competitive");
+        review.applyFine("Broke a plate");
+        emp.addPerformanceRecord(review);
+
+        EmployeeService reopened = new EmployeeService(TEST_DATA_FILE);
+        Employee reloaded = reopened.findEmployeeById("E030").orElseThrow();
+        assertEquals(2, reloaded.getPerformanceRecordCount());
+        assertEquals("4", reloaded.getPerformanceHistory(1, 1).get(0).getMonthlyRating());
+        List<PerformanceEvent> warnings = reopened.findPerformanceEntries("E030", PerformanceEvent.Type.WARNING_LETTER,
+                LocalDate.now(), LocalDate.now());
+        assertEquals(1, warnings.size());
+        assertEquals("Too competitive", warnings.get(0).getReason());
+        assertEquals(2, reopened.findPerformanceEntries("E030", null, null, null).size());
+    }
+
+    @Test
+    public void testDeletedEmployeeHistoryDoesNotCarryOver() {
+        Employee emp = new RegularEmployee("E031", "Gunther", "Cafe", 30000, 0);
+        employeeService.addEmployee(emp);
+        emp.addPerformanceRecord(new Performance("E031", "2"));
+        employeeService.recordPerformanceEvent(new PerformanceEvent("E031", PerformanceEvent.Type.WARNING_LETTER, 0, "Spilled coffee"));
+        employeeService.recordPerformanceEvent(new PerformanceEvent("E031", PerformanceEvent.Type.BONUS, 100, "Latte art"));
+
+        assertTrue(employeeService.deleteEmployee("E031"));
+        Employee newcomer = new RegularEmployee("E031", "Someone Else", "Cafe", 30000, 0);
+        employeeService.addEmployee(newcomer);
+
+        assertEquals(0, newcomer.getPerformanceRecordCount());
+        assertTrue(employeeService.findPerformanceEvents("E031", null, null).isEmpty());
+        assertTrue(employeeService.findPerformanceEvents(null, null).isEmpty());
+        employeeService.close();
+
+        EmployeeService reopened = new EmployeeService(TEST_DATA_FILE);
+        try {
+            assertTrue(reopened.findPerformanceEvents("E031", null, null).isEmpty());
+            assertEquals(0, reopened.findEmployeeById("E031").orElseThrow().getPerformanceRecordCount());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testPerformanceEventsRecordedAndQueried() {
+        Employee emp = new RegularEmployee("E040", "Ross Geller", "Museum", 50000, 0);
+        employeeService.addEmployee(emp);
+        LocalDate day = LocalDate.of(2024, 3, 1);
+
+        employeeService.recordPerformanceEvent(new PerformanceEvent("E040", PerformanceEvent.Type.WARNING_LETTER, day, 0, "Sandwich incident"));
+        employeeService.recordPerformanceEvent(new PerformanceEvent("E040", PerformanceEvent.Type.BONUS, day.plusDays(10), 1200, "Paper published"));
+        employeeService.recordPerformanceEvent(new PerformanceEvent("E040", PerformanceEvent.Type.FINE, day.plusDays(40), 300, "Late"));
+        assertThrows(IllegalArgumentException.class, () -> employeeService.recordPerformanceEvent(
+                new PerformanceEvent("nobody", PerformanceEvent.Type.FINE, day, 1, "")));
+
+        assertEquals(1200.0, emp.getBonus(), 1e-9);
+        assertEquals(300.0, emp.getFine(), 1e-9);
+        assertEquals(2, employeeService.findPerformanceEvents("E040", day, day.plusDays(30)).size());
+        assertEquals(1, employeeService.findPerformanceEvents(day.plusDays(31), null).size());
+        employeeService.close();
+
+        EmployeeService reopened = new EmployeeService(TEST_DATA_FILE);
+        try {
+            List<PerformanceEvent> events = reopened.findPerformanceEvents("E040", null, null);
+            assertEquals(3, events.size());
+            assertEquals(PerformanceEvent.Type.WARNING_LETTER, events.get(0).getType());
+            assertEquals("Sandwich incident", events.get(0).getReason());
+            assertEquals(1200.0, reopened.findEmployeeById("E040").orElseThrow().getBonus(), 1e-9);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentPerformanceEventsAreAllApplied() throws Exception {
+        Employee emp = new RegularEmployee("E041", "Stanley Hudson", "Sales", 50000, 0);
+        employeeService.addEmployee(emp);
+        int threads = 8;
+        int eventsPerThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            PerformanceEvent.Type type = t % 2 == 0 ? PerformanceEvent.Type.BONUS : PerformanceEvent.Type.FINE;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerThread; i++) {
+                    assertTrue(employeeService.recordPerformanceEvent(new PerformanceEvent("E041", type, 1, "")));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(threads / 2 * eventsPerThread, emp.getBonus(), 1e-9);
+        assertEquals(threads / 2 * eventsPerThread, emp.getFine(), 1e-9);
+        assertEquals(threads * eventsPerThread, employeeService.findPerformanceEvents("E041", null, null).size());
+        assertThrows(IllegalArgumentException.class, () -> employeeService.recordPerformanceEvent(
+                new PerformanceEvent("E041", PerformanceEvent.Type.BONUS, Double.POSITIVE_INFINITY, "")));
+        assertEquals(threads * eventsPerThread, employeeService.findPerformanceEvents("E041", null, null).size());
+        employeeService.close();
+    }
+
+    @Test
+    public void testBackupCountIsPerService() throws IOException {
+        EmployeeService other = new EmployeeService("employee_data_test_other.csv");
+        try {
+            employeeService.setBackupCount(1);
+            employeeService.addEmployee(new Intern("I050", "First", "IT", 1000));
+            employeeService.saveEmployeesToFile(TEST_DATA_FILE);
+            employeeService.saveEmployeesToFile(TEST_DATA_FILE);
+            other.saveEmployeesToFile("employee_data_test_other.csv");
+            other.saveEmployeesToFile("employee_data_test_other.csv");
+
+            assertTrue(Files.exists(Paths.get(FileHandler.getBackupPath(TEST_DATA_FILE, 1))));
+            assertFalse(Files.exists(Paths.get(FileHandler.getBackupPath("employee_data_test_other.csv", 1))));
+            assertThrows(IllegalArgumentException.class, () -> employeeService.setBackupCount(-1));
+        } finally {
+            other.close();
+            Files.deleteIfExists(Paths.get(FileHandler.getBackupPath(TEST_DATA_FILE, 1)));
+            Files.deleteIfExists(Paths.get("employee_data_test_other.csv"));
+            Files.deleteIfExists(Paths.get(FileHandler.getJournalPath("employee_data_test_other.csv")));
+        }
+    }
+
+    @Test
+    public void testJournalReplayedOnLoad() {
+        Manager manager = new Manager("M010", "Rita Moreno", "IT", 90000, 4);
+        employeeService.addEmployee(manager);
+        employeeService.addEmployee(new Intern("I010", "Sam Neill", "HR", 20000));
+        employeeService.addEmployee(new RegularEmployee("E030", "Tina Fey", "HR", 60000, 0));
+        employeeService.deleteEmployee("I010");
+        manager.setSubordinatesManaged(7);
+        employeeService.updateEmployee(manager);
+
+        // Nothing but the journal has been written so far
+        assertTrue(new File(FileHandler.getJournalPath(TEST_DATA_FILE)).exists());
+
+        EmployeeService reloaded = new EmployeeService(TEST_DATA_FILE);
+        List<Employee> employees = reloaded.getEmployees();
+        assertEquals(2, employees.size());
+        assertEquals("M010", employees.get(0).getId());
+        assertEquals(7, ((Manager) employees.get(0)).getSubordinatesManaged());
+        assertFalse(reloaded.findEmployeeById("I010").isPresent());
+    }
+
+    @Test
+    public void testJournalCompactedAtThreshold() {
+        employeeService.setJournalCompactionThreshold(2);
+        // The first change after clearing writes a full snapshot, later ones go to the journal
+        employeeService.addEmployee(new Intern("I011", "Uma Thurman", "IT", 20000));
+        assertFalse(new File(FileHandler.getJournalPath(TEST_DATA_FILE)).exists());
+        employeeService.addEmployee(new Intern("I012", "Val Kilmer", "IT", 20000));
+        assertTrue(new File(FileHandler.getJournalPath(TEST_DATA_FILE)).exists());
+
+        employeeService.addEmployee(new Intern("I013", "Will Smith", "IT", 20000));
+
+        assertFalse(new File(FileHandler.getJournalPath(TEST_DATA_FILE)).exists());
+        assertEquals(3, new EmployeeService(TEST_DATA_FILE).getEmployees().size());
+    }
+
+    @Test
+    public void testSortEmployeesById() {
+        employeeService.addEmployee(new Intern("E10", "Ten", "IT", 20000));
+        employeeService.addEmployee(new Intern("TEMP", "Temp", "IT", 20000));
+        employeeService.addEmployee(new Intern("E9", "Nine", "IT", 20000));
+        employeeService.addEmployee(new Intern("CONTRACTOR", "Contractor", "IT", 20000));
+        employeeService.addEmployee(new Intern("M0100", "Hundred", "IT", 20000));
+
+        employeeService.sortEmployees(SortCriteria.BY_ID);
+
+        List<Employee> sorted = employeeService.getEmployees();
+        assertEquals("E9", sorted.get(0).getId());
+        assertEquals("E10", sorted.get(1).getId());
+        assertEquals("M0100", sorted.get(2).getId());
+        // IDs without digits no longer break the sort; they go last, alphabetically
+        assertEquals("CONTRACTOR", sorted.get(3).getId());
+        assertEquals("TEMP", sorted.get(4).getId());
+    }
+
+    @Test
+    public void testSortedViewsLeaveStoredOrderAlone() {
+        employeeService.addEmployee(new RegularEmployee("E040", "Zoe Saldana", "IT", 50000, 0));
+        employeeService.addEmployee(new RegularEmployee("E041", "Adam Driver", "HR", 70000, 0));
+        employeeService.addEmployee(new RegularEmployee("E042", "Mark Ruffalo", "Finance", 60000, 0));
+
+        List<Employee> byName = employeeService.getSortedEmployees(SortCriteria.BY_NAME);
+        assertEquals("Adam Driver", byName.get(0).getName());
+        assertEquals("Zoe Saldana", byName.get(2).getName());
+        assertEquals("Adam Driver", employeeService.getSortedEmployees(SortCriteria.BY_SALARY).get(0).getName());
+        assertEquals("E040", employeeService.getEmployees().get(0).getId());
+        assertThrows(UnsupportedOperationException.class, () -> byName.remove(0));
+    }
+
+    @Test
+    public void testSortedViewsFollowChanges() {
+        Employee zoe = new RegularEmployee("E043", "Zoe Kravitz", "IT", 50000, 0);
+        employeeService.addEmployee(zoe);
+        employeeService.addEmployee(new RegularEmployee("E044", "Bill Murray", "HR", 70000, 0));
+        employeeService.getSortedEmployees(SortCriteria.BY_NAME);
+        employeeService.getSortedEmployees(SortCriteria.BY_SALARY);
+
+        employeeService.addEmployee(new Intern("E045", "Cate Blanchett", "HR", 20000));
+        zoe.setName("Aubrey Plaza");
+        zoe.setBonus(30000);
+        employeeService.updateEmployee(zoe);
+        employeeService.deleteEmployee("E044");
+
+        List<Employee> byName = employeeService.getSortedEmployees(SortCriteria.BY_NAME);
+        assertEquals(2, byName.size());
+        assertEquals("Aubrey Plaza", byName.get(0).getName());
+        assertEquals("Cate Blanchett", byName.get(1).getName());
+        List<Employee> bySalary = employeeService.getSortedEmployees(SortCriteria.BY_SALARY);
+        assertSame(zoe, bySalary.get(0));
+    }
+
+    @Test
+    public void testSnapshotVersions() {
+        employeeService.addEmployee(new Intern("I050", "Xena Warrior", "IT", 20000));
+        EmployeeSnapshot before = employeeService.getSnapshot();
+        long version = employeeService.getVersion();
+
+        assertFalse(employeeService.getSnapshot().hasChangedSince(version));
+        employeeService.addEmployee(new Intern("I051", "Yara Greyjoy", "IT", 20000));
+        Employee xena = employeeService.findEmployeeById("I050").get();
+        xena.setName("Xena Princess");
+        employeeService.updateEmployee(xena);
+
+        assertTrue(employeeService.getSnapshot().hasChangedSince(version));
+        assertEquals(1, before.size());
+        assertEquals(2, employeeService.getSnapshot().size());
+        long afterUpdate = employeeService.getVersion();
+        employeeService.findEmployeesByName("xena");
+        assertEquals(afterUpdate, employeeService.getVersion());
+    }
+
+    @Test
+    public void testConcurrentAccessKeepsInvariants() throws Exception {
+        final int threads = 8;
+        final int operations = 400;
+        employeeService.setJournalCompactionThreshold(250);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            results.add(pool.submit(() -> {
+                Random random = new Random(thread);
+                List<String> mine = new ArrayList<>();
+                start.await();
+                for (int i = 0; i < operations; i++) {
+                    switch (random.nextInt(6)) {
+                        case 0:
+                        case 1:
+                            String id = "T" + thread + "-" + i;
+                            employeeService.addEmployee(new RegularEmployee(id, "Worker " + thread + " " + i,
+                                    "Dept" + random.nextInt(4), 40000 + random.nextInt(10000), 0));
+                            mine.add(id);
+                            break;
+                        case 2:
+                            if (!mine.isEmpty()) {
+                                assertTrue(employeeService.deleteEmployee(mine.remove(random.nextInt(mine.size()))));
+                            }
+                            break;
+                        case 3:
+                            for (String own : mine) {
+                                assertTrue(employeeService.findEmployeeById(own).isPresent());
+                            }
+                            employeeService.findEmployeesByName("worker " + thread);
+                            employeeService.findEmployeesByDepartment("dept1");
+                            break;
+                        case 4:
+                            SortCriteria criteria = SortCriteria.values()[random.nextInt(SortCriteria.values().length)];
+                            if (random.nextBoolean()) {
+                                employeeService.sortEmployees(criteria);
+                            } else {
+                                assertSortedViewComplete(employeeService.getSortedEmployees(criteria));
+                            }
+                            break;
+                        default:
+                            // Iterating a snapshot must never fail, whatever other threads do
+                            double total = 0;
+                            for (Employee emp : employeeService.getEmployees()) {
+                                total += emp.calculateSalary();
+                            }
+                            assertTrue(total >= 0);
+                            break;
+                    }
+                }
+                return mine.size();
+            }));
+        }
+        start.countDown();
+
+        int expected = 0;
+        for (Future<Integer> result : results) {
+            expected += result.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(expected, employeeService.getEmployees().size());
+        assertIndexConsistent(employeeService);
+        for (SortCriteria criteria : SortCriteria.values()) {
+            assertEquals(expected, employeeService.getSortedEmployees(criteria).size());
+        }
+        assertEquals(expected, employeeService.findEmployeesByName("worker").size());
+        assertEquals(expected, new EmployeeService(TEST_DATA_FILE).getEmployees().size());
+    }
+
+    private static void assertSortedViewComplete(List<Employee> view) {
+        Set<String> ids = new HashSet<>();
+        for (Employee emp : view) {
+            assertTrue(ids.add(emp.getId()));
+        }
+    }
+
+    private static void assertIndexConsistent(EmployeeService service) {
+        for (Employee emp : service.getEmployees()) {
+            assertSame(emp, service.findEmployeeById(emp.getId()).orElse(null));
+        }
+    }
+
     @AfterEach
     public void tearDown() {
+        employeeService.close();
         try {
+            Files.deleteIfExists(Paths.get(TEST_DATA_FILE + PerformanceEventLog.LOG_SUFFIX));
+            Files.deleteIfExists(Paths.get(TEST_DATA_FILE + PerformanceEventLog.LOG_SUFFIX + PerformanceEventLog.CHECKPOINT_SUFFIX));
             Files.deleteIfExists(Paths.get(TEST_DATA_FILE));
+            Files.deleteIfExists(Paths.get(FileHandler.getJournalPath(TEST_DATA_FILE)));
+            Path history = Paths.get(TEST_DATA_FILE + PerformanceHistoryStore.DIRECTORY_SUFFIX);
+            if (Files.isDirectory(history)) {
+                try (Stream<Path> files = Files.list(history)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(history);
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
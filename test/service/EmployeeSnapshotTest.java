@@ -0,0 +1,94 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+
+public class EmployeeSnapshotTest {
+
+    private static Employee intern(int n) {
+        return new Intern("I" + n, "Intern " + n, "IT", 1000 + n);
+    }
+
+    @Test
+    public void testMatchesListUnderRandomChanges() {
+        Random random = new Random(11);
+        List<Employee> model = new ArrayList<>();
+        List<Long> keys = new ArrayList<>();
+        EmployeeSnapshot snapshot = EmployeeSnapshot.empty(0);
+        long nextKey = 0;
+
+        for (int i = 0; i < 5000; i++) {
+            if (model.isEmpty() || random.nextInt(3) > 0) {
+                Employee emp = intern(i);
+                snapshot = snapshot.with(nextKey, emp, snapshot.getVersion() + 1);
+                keys.add(nextKey++);
+                model.add(emp);
+            } else {
+                int index = random.nextInt(model.size());
+                snapshot = snapshot.without(keys.remove(index), snapshot.getVersion() + 1);
+                model.remove(index);
+            }
+        }
+
+        assertEquals(model, snapshot);
+        for (int i = 0; i < model.size(); i += 97) {
+            assertSame(model.get(i), snapshot.get(i));
+        }
+    }
+
+    @Test
+    public void testOlderSnapshotsAreUnaffectedByChanges() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            employees.add(intern(i));
+        }
+        EmployeeSnapshot original = EmployeeSnapshot.of(employees, 1);
+
+        EmployeeSnapshot changed = original.without(50, 2).with(100, intern(100), 3);
+
+        assertEquals(employees, original);
+        assertEquals(100, changed.size());
+        assertEquals("I51", changed.get(50).getId());
+        assertEquals("I100", changed.get(99).getId());
+        assertTrue(changed.hasChangedSince(original.getVersion()));
+        assertFalse(changed.hasChangedSince(3));
+    }
+
+    @Test
+    public void testIteratorFromPosition() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            employees.add(intern(i));
+        }
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(employees, 1);
+
+        for (int start : new int[]{0, 1, 511, 999, 1000}) {
+            Iterator<Employee> it = snapshot.iterator(start);
+            for (int i = start; i < 1000; i++) {
+                assertSame(employees.get(i), it.next());
+            }
+            assertFalse(it.hasNext());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.iterator(1001));
+    }
+
+    @Test
+    public void testSnapshotIsReadOnly() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(List.of(intern(1)), 1);
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(intern(2)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+    }
+}
@@ -0,0 +1,77 @@
+package service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+import models.Manager;
+import models.RegularEmployee;
+
+public class PayrollEngineTest {
+
+    @Test
+    public void testTotalsByDepartmentAndType() {
+        List<Employee> roster = List.of(
+                new Manager("M1", "Alice", "IT", 5000, 2),       // 6000
+                new RegularEmployee("R1", "Bob", "IT", 3000, 200), // 3200
+                new RegularEmployee("R2", "Carol", "HR", 2800),   // 2800
+                new Intern("I1", "Dave", "HR", 1000));            // 1000
+
+        PayrollReport report = new PayrollEngine().run(roster);
+
+        assertEquals(4, report.getEmployeeCount());
+        assertEquals(13000.0, report.getTotalPayroll(), 1e-9);
+        assertEquals(1000.0, report.getMinSalary(), 1e-9);
+        assertEquals(6000.0, report.getMaxSalary(), 1e-9);
+        assertEquals(3250.0, report.getMeanSalary(), 1e-9);
+        assertEquals(2800.0, report.getMedianSalary(), 1e-9);
+        assertEquals(6000.0, report.getPercentile(100), 1e-9);
+        assertEquals(1000.0, report.getPercentile(0), 1e-9);
+
+        assertEquals(9200.0, report.getTotalsByDepartment().get("IT"), 1e-9);
+        assertEquals(3800.0, report.getTotalsByDepartment().get("HR"), 1e-9);
+        assertEquals(6000.0, report.getTotalsByType().get("Manager"), 1e-9);
+        assertEquals(6000.0, report.getTotalsByType().get("RegularEmployee"), 1e-9);
+        assertEquals(1000.0, report.getTotalsByType().get("Intern"), 1e-9);
+        assertEquals(2, report.getHeadcountByType().get("RegularEmployee"));
+    }
+
+    @Test
+    public void testParallelRunMatchesSequentialSum() {
+        List<Employee> roster = new ArrayList<>();
+        double expected = 0;
+        for (int i = 0; i < 20000; i++) {
+            Employee emp = new Intern("I" + i, "Intern " + i, "D" + (i % 7), 1000 + i % 113);
+            roster.add(emp);
+            expected += emp.calculateSalary();
+        }
+
+        PayrollReport report = new PayrollEngine().run(roster);
+
+        assertEquals(20000, report.getEmployeeCount());
+        assertEquals(expected, report.getTotalPayroll(), 1e-6);
+        assertEquals(expected, report.getTotalsByDepartment().values().stream()
+                .mapToDouble(Double::doubleValue).sum(), 1e-6);
+        assertEquals(7, report.getTotalsByDepartment().size());
+        assertEquals(1000.0, report.getMinSalary(), 1e-9);
+        assertEquals(1112.0, report.getMaxSalary(), 1e-9);
+    }
+
+    @Test
+    public void testEmptyRoster() {
+        PayrollReport report = new PayrollEngine().run(List.of());
+
+        assertEquals(0, report.getEmployeeCount());
+        assertEquals(0.0, report.getTotalPayroll(), 1e-9);
+        assertEquals(0.0, report.getMinSalary(), 1e-9);
+        assertEquals(0.0, report.getMeanSalary(), 1e-9);
+        assertEquals(0.0, report.getMedianSalary(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> report.getPercentile(101));
+    }
+}
@@ -0,0 +1,35 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+public class EdtLatencyProbeTest {
+
+    @Test
+    public void testBlockedDispatchThreadIsMeasured() throws Exception {
+        EdtLatencyProbe probe = new EdtLatencyProbe(20);
+        SwingUtilities.invokeAndWait(probe::start);
+        Thread.sleep(100);
+
+        // Freeze the event dispatch thread, as a long task run on it would
+        SwingUtilities.invokeAndWait(() -> sleep(300));
+        Thread.sleep(100);
+        SwingUtilities.invokeAndWait(probe::stop);
+
+        assertTrue(probe.getMaxLatencyMillis() >= 200, "max latency was " + probe.getMaxLatencyMillis());
+        probe.reset();
+        assertEquals(0, probe.getMaxLatencyMillis());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+import models.Manager;
+import models.RegularEmployee;
+
+public class EmployeeTableModelTest {
+    private EmployeeTableModel model;
+    private List<TableModelEvent> events;
+
+    @BeforeEach
+    public void setUp() {
+        model = new EmployeeTableModel();
+        events = new ArrayList<>();
+        model.addTableModelListener(events::add);
+    }
+
+    @Test
+    public void testCellsAreFormattedFromEmployee() {
+        model.setEmployees(List.of(new Manager("M1", "Alice", "IT", 5000, 2), new Intern("I1", "Dave", "HR", 1000)));
+
+        assertEquals(2, model.getRowCount());
+        assertEquals(10, model.getColumnCount());
+        assertEquals("M1", model.getValueAt(0, 0));
+        assertEquals("5000.00", model.getValueAt(0, 3));
+        assertEquals("6000.00", model.getValueAt(0, 7));
+        assertEquals("Subordinates: 2", model.getValueAt(0, 9));
+        assertEquals("Intern", model.getValueAt(1, 8));
+    }
+
+    @Test
+    public void testChangesFireRowEvents() {
+        Employee a = new RegularEmployee("R1", "Ann", "IT", 3000);
+        Employee b = new RegularEmployee("R2", "Ben", "IT", 3100);
+        Employee c = new RegularEmployee("R3", "Cat", "IT", 3200);
+        model.setEmployees(List.of(a, c));
+
+        model.employeeAdded(List.of(a, b, c), b);
+        assertEvent(TableModelEvent.INSERT, 1, 1);
+
+        // c moves from the last row to the first
+        model.employeeUpdated(List.of(c, a, b), c);
+        assertEvent(TableModelEvent.UPDATE, 0, 2);
+
+        model.employeeRemoved(List.of(c, b), "R1");
+        assertEvent(TableModelEvent.DELETE, 1, 1);
+        assertEquals("R2", model.getEmployeeAt(1).getId());
+    }
+
+    @Test
+    public void testUnexpectedListFallsBackToFullRefresh() {
+        Employee a = new RegularEmployee("R1", "Ann", "IT", 3000);
+        Employee b = new RegularEmployee("R2", "Ben", "IT", 3100);
+        model.setEmployees(List.of(a));
+
+        model.employeeUpdated(List.of(a, b), a);
+
+        assertEquals(Integer.MAX_VALUE, events.get(events.size() - 1).getLastRow());
+        assertEquals(2, model.getRowCount());
+    }
+
+    private void assertEvent(int type, int firstRow, int lastRow) {
+        TableModelEvent event = events.get(events.size() - 1);
+        assertEquals(type, event.getType());
+        assertEquals(firstRow, event.getFirstRow());
+        assertEquals(lastRow, event.getLastRow());
+    }
+}
@@ -0,0 +1,65 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTest {
+
+    @Test
+    public void testPlainFieldsAreTrimmed() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a, b ,c\n"));
+        assertArrayEquals(new String[]{"a", "b", "c"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void testQuotedFieldsKeepCommasQuotesAndWhitespace() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"Smith, John\",\"say \"\"hi\"\"\",\" padded \"\n"));
+        assertArrayEquals(new String[]{"Smith, John", "say \"hi\"", " padded "}, csv.readRecord());
+    }
+
+    @Test
+    public void testQuotedFieldSpanningLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"line one\nline two\",x\r\nnext,row"));
+        assertArrayEquals(new String[]{"line one\nline two", "x"}, csv.readRecord());
+        assertArrayEquals(new String[]{"next", "row"}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void testBlankLinesAndEmptyFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\n\r\na,,\n\n"));
+        assertArrayEquals(new String[]{"a", "", ""}, csv.readRecord());
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    public void testRecordsLongerThanBuffer() throws IOException {
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            longName.append((char) ('a' + i % 26));
+        }
+        CsvReader csv = new CsvReader(new StringReader("\"" + longName + "\",1\n2,3\n"));
+        String[] first = csv.readRecord();
+        assertEquals(longName.toString(), first[0]);
+        assertEquals("1", first[1]);
+        assertArrayEquals(new String[]{"2", "3"}, csv.readRecord());
+    }
+
+    @Test
+    public void testEscapeRoundTrip() throws IOException {
+        String[] values = {"plain", "Doe, Jane", "quote \" inside", " lead", "multi\nline", ""};
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(CsvReader.escape(values[i]));
+        }
+        assertArrayEquals(values, new CsvReader(new StringReader(line.toString())).readRecord());
+    }
+}
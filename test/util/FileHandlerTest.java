@@ -0,0 +1,359 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import models.Employee;
+import models.Intern;
+import models.Manager;
+import models.PerformanceRating;
+import models.RegularEmployee;
+
+public class FileHandlerTest {
+
+    private static final String TEST_FILE = "file_handler_test.csv";
+    private static final String TEST_SNAPSHOT = "file_handler_test.ems";
+
+    // Quoted names and departments containing commas, quotes and padding
+    private static final String CORPUS =
+            "Type,Name,ID,Department,BaseSalary,PerformanceRating,Bonus,Fine\n"
+            + "Manager,\"Smith, John\",M1,IT,100000.0,5,500.0,0.0,3\n"
+            + "RegularEmployee,\"O'Neil, \"\"Shaq\"\"\",R1,\"Sales, East\",60000.0,4,200.0,50.0\n"
+            + "Intern, Peter Parker ,I1,Marketing,1500.0,N/A,0.0,0.0\n"
+            + "\n"
+            + "RegularEmployee,Broken Row,R2,HR,not-a-number,3,0.0,0.0\n"
+            + "RegularEmployee,Too Short,R3\n";
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get(TEST_FILE));
+        Files.deleteIfExists(Paths.get(TEST_SNAPSHOT));
+        Files.deleteIfExists(Paths.get(FileHandler.getJournalPath(TEST_FILE)));
+        for (int generation = 1; generation <= 3; generation++) {
+            Files.deleteIfExists(Paths.get(FileHandler.getBackupPath(TEST_FILE, generation)));
+        }
+    }
+
+    @Test
+    public void testReadQuotedCorpus() throws IOException {
+        Files.write(Paths.get(TEST_FILE), CORPUS.getBytes());
+
+        List<Employee> employees = FileHandler.readEmployees(TEST_FILE);
+
+        assertEquals(3, employees.size());
+        assertEquals("Smith, John", employees.get(0).getName());
+        assertEquals(3, ((Manager) employees.get(0)).getSubordinatesManaged());
+        assertEquals("O'Neil, \"Shaq\"", employees.get(1).getName());
+        assertEquals("Sales, East", employees.get(1).getDepartment());
+        assertEquals(50.0, employees.get(1).getFine());
+        assertEquals("Peter Parker", employees.get(2).getName());
+        assertTrue(employees.get(2) instanceof Intern);
+    }
+
+    @Test
+    public void testLegacyFreeFormRatingKeepsEmployee() throws IOException {
+        Files.write(Paths.get(TEST_FILE), ("Type,Name,ID,Department,BaseSalary,PerformanceRating,Bonus,Fine\n"
+                + "RegularEmployee,Old Timer,R7,HR,40000.0,Good+,0.0,0.0\n"
+                + "Intern,New Hire,I7,HR,1000.0,Average,0.0,0.0\n").getBytes(StandardCharsets.UTF_8));
+
+        List<Employee> employees = FileHandler.readEmployees(TEST_FILE);
+
+        assertEquals(2, employees.size());
+        assertEquals(PerformanceRating.NOT_RATED, employees.get(0).getPerformanceRating());
+        assertEquals(PerformanceRating.AVERAGE, employees.get(1).getPerformanceRating());
+    }
+
+    @Test
+    public void testStreamIsLazyAndClosable() throws IOException {
+        Files.write(Paths.get(TEST_FILE), CORPUS.getBytes());
+
+        try (Stream<Employee> stream = FileHandler.streamEmployees(TEST_FILE)) {
+            Iterator<Employee> it = stream.iterator();
+            assertEquals("M1", it.next().getId());
+            assertEquals("R1", it.next().getId());
+        }
+    }
+
+    @Test
+    public void testParallelLoadMatchesSequential() throws IOException {
+        StringBuilder csv = new StringBuilder("Type,Name,ID,Department,BaseSalary,PerformanceRating,Bonus,Fine\n");
+        for (int i = 0; i < 20_000; i++) {
+            switch (i % 3) {
+                case 0:
+                    csv.append("Manager,\"Boss, No. ").append(i).append("\",M").append(i)
+                       .append(",IT,").append(90000 + i).append(".5,5,100.0,0.0,").append(i % 9).append('\n');
+                    break;
+                case 1:
+                    csv.append("RegularEmployee,\u00c9milie ").append(i).append(",R").append(i)
+                       .append(",\"Sales, East\",").append(50000 + i).append(".25,4,20.0,5.0\n");
+                    break;
+                default:
+                    csv.append("Intern,Intern ").append(i).append(",I").append(i)
+                       .append(",HR,1500.0,N/A,0.0,0.0\r\n");
+                    break;
+            }
+        }
+        Files.write(Paths.get(TEST_FILE), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Employee> sequential;
+        try (Stream<Employee> stream = FileHandler.streamEmployees(TEST_FILE)) {
+            sequential = stream.collect(Collectors.toList());
+        }
+        for (int chunks : new int[]{1, 2, 7, 64}) {
+            List<Employee> parallel = FileHandler.readEmployeesParallel(TEST_FILE, chunks);
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertSameEmployee(sequential.get(i), parallel.get(i));
+            }
+        }
+        assertEquals(20_000, sequential.size());
+    }
+
+    @Test
+    public void testParallelReadFallsBackOnQuotedLineBreak() throws IOException {
+        StringBuilder csv = new StringBuilder("Type,Name,ID,Department,BaseSalary,PerformanceRating,Bonus,Fine\n");
+        for (int i = 0; i < 2_000; i++) {
+            csv.append("RegularEmployee,\"Line one\nline two ").append(i).append("\",R").append(i)
+               .append(",IT,").append(40000 + i).append(".0,3,0.0,0.0\n");
+        }
+        Files.write(Paths.get(TEST_FILE), csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        List<Employee> sequential = FileHandler.readEmployees(TEST_FILE);
+        assertEquals(2_000, sequential.size());
+        for (int chunks : new int[]{1, 3, 16}) {
+            List<Employee> parallel = FileHandler.readEmployeesParallel(TEST_FILE, chunks);
+            assertEquals(sequential.size(), parallel.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertSameEmployee(sequential.get(i), parallel.get(i));
+            }
+        }
+        assertEquals("Line one\nline two 7", sequential.get(7).getName());
+    }
+
+    @Test
+    public void testWriteAndReadBackQuotedValues() throws IOException {
+        Employee regular = new RegularEmployee("R9", "Doe, Jane \"JD\"", "R&D, Labs", 70000, 250);
+        regular.setPerformanceRating("4");
+        Employee manager = new Manager("M9", "Lee,Bruce", "Ops", 90000, 2);
+        FileHandler.writeEmployees(List.of(regular, manager), TEST_FILE);
+
+        Path path = Paths.get(TEST_FILE);
+        List<Employee> loaded = FileHandler.readEmployees(path.toString());
+
+        assertEquals(2, loaded.size());
+        assertEquals("Doe, Jane \"JD\"", loaded.get(0).getName());
+        assertEquals("R&D, Labs", loaded.get(0).getDepartment());
+        assertEquals(250.0, loaded.get(0).getBonus());
+        assertEquals("Lee,Bruce", loaded.get(1).getName());
+        assertEquals(2, ((Manager) loaded.get(1)).getSubordinatesManaged());
+    }
+
+    @Test
+    public void testFailedWriteLeavesPreviousFileIntact() throws IOException {
+        FileHandler.writeEmployees(List.of(new Intern("I1", "Kept", "IT", 1000)), TEST_FILE);
+        byte[] before = Files.readAllBytes(Paths.get(TEST_FILE));
+
+        Employee broken = new Intern("I2", "Broken", "IT", 1000) {
+            @Override
+            public String getName() {
+                throw new IllegalStateException("simulated crash");
+            }
+        };
+        assertThrows(IllegalStateException.class,
+                () -> FileHandler.writeEmployees(List.of(new Intern("I3", "New", "IT", 1000), broken), TEST_FILE));
+
+        assertArrayEquals(before, Files.readAllBytes(Paths.get(TEST_FILE)));
+        assertTrue(temporaryFiles().isEmpty());
+    }
+
+    @Test
+    public void testRollingBackups() throws IOException {
+        for (int version = 1; version <= 4; version++) {
+            FileHandler.writeEmployees(List.of(new Intern("I" + version, "Version " + version, "IT", 1000)), TEST_FILE, 2);
+        }
+
+        assertEquals("Version 4", FileHandler.readEmployees(TEST_FILE).get(0).getName());
+        assertEquals("Version 3", FileHandler.readEmployees(FileHandler.getBackupPath(TEST_FILE, 1)).get(0).getName());
+        assertEquals("Version 2", FileHandler.readEmployees(FileHandler.getBackupPath(TEST_FILE, 2)).get(0).getName());
+        assertFalse(Files.exists(Paths.get(FileHandler.getBackupPath(TEST_FILE, 3))));
+    }
+
+    @Test
+    public void testConcurrentWritesToOneFileDoNotInterleave() throws Exception {
+        List<List<Employee>> versions = new ArrayList<>();
+        for (int version = 0; version < 4; version++) {
+            List<Employee> roster = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                roster.add(new Intern("I" + i, "Version " + version, "IT", 1000));
+            }
+            versions.add(roster);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(versions.size());
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int round = 0; round < 5; round++) {
+                for (List<Employee> roster : versions) {
+                    writes.add(pool.submit(() -> {
+                        FileHandler.writeEmployees(roster, TEST_FILE);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Employee> loaded = FileHandler.readEmployees(TEST_FILE);
+        assertEquals(2_000, loaded.size());
+        for (Employee emp : loaded) {
+            assertEquals(loaded.get(0).getName(), emp.getName());
+        }
+        assertTrue(temporaryFiles().isEmpty());
+    }
+
+    private static List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(TEST_FILE).toAbsolutePath().getParent())) {
+            return files.filter(file -> file.getFileName().toString().startsWith(TEST_FILE + ".")
+                    && file.getFileName().toString().endsWith(".tmp")).collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testConvertCsvToBinarySnapshotAndBack() throws IOException {
+        Files.write(Paths.get(TEST_FILE), CORPUS.getBytes(StandardCharsets.UTF_8));
+        List<Employee> original = FileHandler.readEmployees(TEST_FILE);
+
+        FileHandler.convert(TEST_FILE, TEST_SNAPSHOT);
+        List<Employee> fromSnapshot = FileHandler.readEmployees(TEST_SNAPSHOT);
+        assertEquals(original.size(), fromSnapshot.size());
+        for (int i = 0; i < original.size(); i++) {
+            assertSameEmployee(original.get(i), fromSnapshot.get(i));
+        }
+
+        Files.delete(Paths.get(TEST_FILE));
+        FileHandler.convert(TEST_SNAPSHOT, TEST_FILE);
+        List<Employee> backToCsv = FileHandler.readEmployees(TEST_FILE);
+        for (int i = 0; i < original.size(); i++) {
+            assertSameEmployee(original.get(i), backToCsv.get(i));
+        }
+    }
+
+    @Test
+    public void testJournalDropsTornFinalEntry() throws IOException {
+        Path journal = Paths.get(FileHandler.getJournalPath(TEST_FILE));
+        FileHandler.appendJournalEntry(TEST_FILE, FileHandler.JournalOperation.ADD,
+                new RegularEmployee("R1", "Ann, Lee", "IT", 50000, 100));
+        FileHandler.appendJournalEntry(TEST_FILE, FileHandler.JournalOperation.UPDATE,
+                new RegularEmployee("R1", "Ann, Lee", "IT", 85000, 100));
+        byte[] both = Files.readAllBytes(journal);
+
+        // Cut the second entry short, e.g. "...,IT,85"; it must not replay as a salary of 85
+        Files.write(journal, Arrays.copyOf(both, both.length - 14));
+        List<FileHandler.JournalEntry> entries = FileHandler.readJournal(TEST_FILE);
+        assertEquals(1, entries.size());
+        assertEquals(50000, entries.get(0).getEmployee().getBaseSalary());
+
+        // Only the line break is missing
+        Files.write(journal, Arrays.copyOf(both, both.length - 1));
+        assertEquals(1, FileHandler.readJournal(TEST_FILE).size());
+
+        // A later append cuts the torn entry off rather than completing it
+        FileHandler.appendJournalEntry(TEST_FILE, FileHandler.JournalOperation.DELETE,
+                new RegularEmployee("R1", "Ann, Lee", "IT", 85000, 100));
+        entries = FileHandler.readJournal(TEST_FILE);
+        assertEquals(2, entries.size());
+        assertEquals(FileHandler.JournalOperation.DELETE, entries.get(1).getOperation());
+    }
+
+    @Test
+    public void testJournalSkipsCorruptEntry() throws IOException {
+        Path journal = Paths.get(FileHandler.getJournalPath(TEST_FILE));
+        FileHandler.appendJournalEntry(TEST_FILE, FileHandler.JournalOperation.ADD, new Intern("I1", "Ann", "IT", 1500));
+        int flipAt = (int) Files.size(journal) - 5;
+        FileHandler.appendJournalEntry(TEST_FILE, FileHandler.JournalOperation.ADD, new Intern("I2", "Bob", "HR", 1600));
+
+        byte[] bytes = Files.readAllBytes(journal);
+        bytes[flipAt] = '9';
+        Files.write(journal, bytes);
+
+        List<FileHandler.JournalEntry> entries = FileHandler.readJournal(TEST_FILE);
+        assertEquals(1, entries.size());
+        assertEquals("I2", entries.get(0).getEmployeeId());
+    }
+
+    @Test
+    public void testReadRejectsNonSnapshot() throws IOException {
+        Files.write(Paths.get(TEST_SNAPSHOT), CORPUS.getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> FileHandler.readEmployees(TEST_SNAPSHOT));
+    }
+
+    @Test
+    public void testReadRejectsCorruptSnapshot() throws IOException {
+        FileHandler.writeEmployees(List.of(new Intern("I1", "Ann", "IT", 1234.5)), TEST_SNAPSHOT);
+        byte[] valid = Files.readAllBytes(Paths.get(TEST_SNAPSHOT));
+
+        // Record count, just after the magic number and version
+        assertCorrupt(valid, 8, ByteBuffer.allocate(4).putInt(Integer.MAX_VALUE).array());
+        assertCorrupt(valid, 8, ByteBuffer.allocate(4).putInt(-1).array());
+        // Length of the first record's ID, just after its type tag
+        assertCorrupt(valid, 13, ByteBuffer.allocate(4).putInt(1 << 30).array());
+        assertCorrupt(valid, 13, ByteBuffer.allocate(4).putInt(-2).array());
+        // Base salary, which the employee classes reject when negative
+        byte[] salary = ByteBuffer.allocate(8).putDouble(1234.5).array();
+        int salaryOffset = -1;
+        for (int i = 0; i + salary.length <= valid.length && salaryOffset < 0; i++) {
+            if (Arrays.equals(salary, Arrays.copyOfRange(valid, i, i + salary.length))) {
+                salaryOffset = i;
+            }
+        }
+        assertCorrupt(valid, salaryOffset, ByteBuffer.allocate(8).putDouble(-1).array());
+    }
+
+    private static void assertCorrupt(byte[] valid, int offset, byte[] patch) throws IOException {
+        byte[] corrupt = valid.clone();
+        System.arraycopy(patch, 0, corrupt, offset, patch.length);
+        Files.write(Paths.get(TEST_SNAPSHOT), corrupt);
+        IOException e = assertThrows(IOException.class, () -> FileHandler.readEmployees(TEST_SNAPSHOT));
+        assertTrue(e.getMessage().startsWith("Corrupt snapshot"), e.getMessage());
+    }
+
+    private static void assertSameEmployee(Employee expected, Employee actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDepartment(), actual.getDepartment());
+        assertEquals(expected.getBaseSalary(), actual.getBaseSalary());
+        assertEquals(expected.getPerformanceRating(), actual.getPerformanceRating());
+        assertEquals(expected.getBonus(), actual.getBonus());
+        assertEquals(expected.getFine(), actual.getFine());
+        if (expected instanceof Manager) {
+            assertEquals(((Manager) expected).getSubordinatesManaged(), ((Manager) actual).getSubordinatesManaged());
+        }
+    }
+}
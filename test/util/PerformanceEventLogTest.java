@@ -0,0 +1,231 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import models.PerformanceEvent;
+
+public class PerformanceEventLogTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path directory;
+
+    private static List<PerformanceEvent> generate(int count, long seed) {
+        Random random = new Random(seed);
+        PerformanceEvent.Type[] types = PerformanceEvent.Type.values();
+        List<PerformanceEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Mostly increasing dates with some back-dated entries, as real logs have
+            LocalDate date = START.plusDays(i / 10 - (random.nextInt(10) == 0 ? random.nextInt(30) : 0));
+            events.add(new PerformanceEvent("E" + random.nextInt(40), types[random.nextInt(types.length)],
+                    date, random.nextInt(3) * 100.0, "Reason " + i));
+        }
+        return events;
+    }
+
+    private static List<String> describe(List<PerformanceEvent> events) {
+        List<String> result = new ArrayList<>();
+        for (PerformanceEvent event : events) {
+            result.add(event.toString());
+        }
+        return result;
+    }
+
+    private static void assertQueriesMatch(PerformanceEventLog log, List<PerformanceEvent> expected) throws IOException {
+        assertEquals(expected.size(), log.size());
+        LocalDate from = START.plusDays(100);
+        LocalDate to = START.plusDays(160);
+        for (String employeeId : new String[] {"E0", "E7", "E39", "missing"}) {
+            List<PerformanceEvent> all = new ArrayList<>();
+            List<PerformanceEvent> inRange = new ArrayList<>();
+            for (PerformanceEvent event : expected) {
+                if (event.getEmployeeId().equals(employeeId)) {
+                    all.add(event);
+                    if (!event.getDate().isBefore(from) && !event.getDate().isAfter(to)) {
+                        inRange.add(event);
+                    }
+                }
+            }
+            assertEquals(describe(all), describe(log.findByEmployee(employeeId)));
+            assertEquals(describe(inRange), describe(log.findByEmployee(employeeId, from, to)));
+            assertEquals(all.size(), log.countByEmployee(employeeId));
+        }
+        List<PerformanceEvent> inRange = new ArrayList<>();
+        for (PerformanceEvent event : expected) {
+            if (!event.getDate().isBefore(from) && !event.getDate().isAfter(to)) {
+                inRange.add(event);
+            }
+        }
+        assertEquals(describe(inRange), describe(log.findByDateRange(from, to)));
+        assertEquals(expected.size(), log.findByDateRange(null, null).size());
+    }
+
+    @Test
+    public void testQueriesMatchScan() throws IOException {
+        List<PerformanceEvent> events = generate(PerformanceEventLog.BLOCK_SIZE * 3 + 17, 5);
+        try (PerformanceEventLog log = PerformanceEventLog.open(directory.resolve("log.events"))) {
+            log.setCheckpointInterval(1000);
+            for (PerformanceEvent event : events) {
+                log.append(event);
+            }
+            assertQueriesMatch(log, events);
+        }
+    }
+
+    @Test
+    public void testReopenFromCheckpointAndTail() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(5000, 9);
+        PerformanceEventLog log = PerformanceEventLog.open(path);
+        log.setCheckpointInterval(1500);
+        for (PerformanceEvent event : events.subList(0, 4000)) {
+            log.append(event);
+        }
+        // Not closed, as after a crash: the index must come from the checkpoint plus the tail
+        assertTrue(Files.exists(Paths.get(path + PerformanceEventLog.CHECKPOINT_SUFFIX)));
+        try (PerformanceEventLog reopened = PerformanceEventLog.open(path)) {
+            assertQueriesMatch(reopened, events.subList(0, 4000));
+            for (PerformanceEvent event : events.subList(4000, 5000)) {
+                reopened.append(event);
+            }
+        }
+        log.close();
+        try (PerformanceEventLog reopened = PerformanceEventLog.open(path)) {
+            assertQueriesMatch(reopened, events);
+        }
+    }
+
+    @Test
+    public void testRemovedEmployeeStaysRemovedAfterReopen() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(3000, 13);
+        List<PerformanceEvent> expected = new ArrayList<>();
+        PerformanceEventLog log = PerformanceEventLog.open(path);
+        log.setCheckpointInterval(700);
+        for (int i = 0; i < events.size(); i++) {
+            if (i == 2000) {
+                log.removeEmployee("E7");
+                expected.removeIf(event -> event.getEmployeeId().equals("E7"));
+            }
+            log.append(events.get(i));
+            expected.add(events.get(i));
+        }
+        assertQueriesMatch(log, expected);
+        // Not closed, as after a crash: the removal must survive in the checkpoint or the tail
+        try (PerformanceEventLog reopened = PerformanceEventLog.open(path)) {
+            assertQueriesMatch(reopened, expected);
+        }
+        log.close();
+        Files.delete(Paths.get(path + PerformanceEventLog.CHECKPOINT_SUFFIX));
+        try (PerformanceEventLog rebuilt = PerformanceEventLog.open(path)) {
+            assertQueriesMatch(rebuilt, expected);
+        }
+    }
+
+    @Test
+    public void testIncompleteRecordDiscarded() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(50, 3);
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            for (PerformanceEvent event : events) {
+                log.append(event);
+            }
+        }
+        long size = Files.size(path);
+        // Half of a record, as if the process died while appending
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 40, 1, 0, 0}));
+        }
+
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            assertEquals(size, Files.size(path));
+            assertQueriesMatch(log, events);
+            PerformanceEvent extra = new PerformanceEvent("E0", PerformanceEvent.Type.BONUS, START, 50, "Late fix");
+            log.append(extra);
+            events = new ArrayList<>(events);
+            events.add(extra);
+            assertQueriesMatch(log, events);
+        }
+    }
+
+    @Test
+    public void testMalformedRecordMidFileSkipped() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(50, 5);
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            for (PerformanceEvent event : events) {
+                log.append(event);
+            }
+        }
+        // Rebuild the index from the records themselves
+        Files.delete(Paths.get(path + PerformanceEventLog.CHECKPOINT_SUFFIX));
+        long size = Files.size(path);
+        // An unknown type byte in the first record, just after its length
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {100}), 4);
+        }
+
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            assertEquals(size, Files.size(path));
+            assertQueriesMatch(log, events.subList(1, events.size()));
+        }
+    }
+
+    @Test
+    public void testCorruptLengthMidFileFailsOpen() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(50, 6);
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            for (PerformanceEvent event : events) {
+                log.append(event);
+            }
+        }
+        Files.delete(Paths.get(path + PerformanceEventLog.CHECKPOINT_SUFFIX));
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 3), 0);
+        }
+
+        // Truncating here would throw away every event after the damage
+        assertThrows(IOException.class, () -> PerformanceEventLog.open(path));
+        assertEquals(size, Files.size(path));
+    }
+
+    @Test
+    public void testStaleCheckpointIgnored() throws IOException {
+        Path path = directory.resolve("log.events");
+        List<PerformanceEvent> events = generate(300, 4);
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            for (PerformanceEvent event : events) {
+                log.append(event);
+            }
+        }
+        // The log lost its tail but the checkpoint still describes it
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(0);
+        }
+
+        try (PerformanceEventLog log = PerformanceEventLog.open(path)) {
+            assertEquals(0, log.size());
+            assertTrue(log.findByEmployee("E0").isEmpty());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import models.Performance;
+import models.PerformanceEvent;
+
+public class PerformanceHistoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private static Performance record(String employeeId, int n) {
+        LocalDate date = LocalDate.of(2024, 1, 1).plusDays(n);
+        return new Performance(employeeId, String.valueOf(n % 5 + 1), date, n % 2 == 0, n % 3 == 0, false, n % 7 == 0,
+                List.of(new PerformanceEvent(employeeId, PerformanceEvent.Type.APPRECIATION_LETTER, date, 0, "Note " + n)));
+    }
+
+    private static String note(Performance performance) {
+        return performance.getEntries().get(0).getReason();
+    }
+
+    @Test
+    public void testPagesAcrossSegments() {
+        PerformanceHistoryStore store = new PerformanceHistoryStore(directory);
+        int total = PerformanceHistoryStore.SEGMENT_SIZE * 2 + 10;
+        for (int i = 0; i < total; i++) {
+            store.append("E1", record("E1", i));
+        }
+
+        // A fresh store must work out the count from the files alone
+        PerformanceHistoryStore reopened = new PerformanceHistoryStore(directory);
+        assertEquals(total, reopened.count("E1"));
+        assertEquals(total, reopened.load("E1").size());
+
+        int offset = PerformanceHistoryStore.SEGMENT_SIZE - 5;
+        List<Performance> page = reopened.loadPage("E1", offset, 20);
+        assertEquals(20, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            assertEquals("Note " + (offset + i), note(page.get(i)));
+            assertEquals(LocalDate.of(2024, 1, 1).plusDays(offset + i), page.get(i).getDate());
+        }
+        assertEquals(10, reopened.loadPage("E1", total - 10, 50).size());
+        assertTrue(reopened.loadPage("E1", total, 5).isEmpty());
+
+        reopened.append("E1", record("E1", total));
+        assertEquals(total + 1, reopened.count("E1"));
+        assertEquals("Note " + total, note(reopened.loadPage("E1", total, 1).get(0)));
+    }
+
+    @Test
+    public void testRoundTripsAllFields() {
+        PerformanceHistoryStore store = new PerformanceHistoryStore(directory);
+        LocalDate date = LocalDate.of(2024, 5, 17);
+        Performance original = new Performance("E1", "4", date, true, false, true, true, List.of(
+                new PerformanceEvent("E1", PerformanceEvent.Type.WARNING_LETTER, date.minusDays(3), 0, "Late, twice; \"final\" warning\nsee HR"),
+                new PerformanceEvent("E1", PerformanceEvent.Type.BONUS, date, 250.5, ""),
+                new PerformanceEvent("E1", PerformanceEvent.Type.FINE, date.plusDays(2), 40, " padded ")));
+        store.append("E1", original);
+        store.append("E1", new Performance("E1", "N/A"));
+
+        Performance copy = new PerformanceHistoryStore(directory).load("E1").get(0);
+        assertEquals("E1", copy.getEmployeeId());
+        assertEquals(original.getMonthlyRating(), copy.getMonthlyRating());
+        assertEquals(original.getDate(), copy.getDate());
+        assertEquals(original.hasWarningLetter(), copy.hasWarningLetter());
+        assertEquals(original.hasAppreciationLetter(), copy.hasAppreciationLetter());
+        assertEquals(original.hasBonus(), copy.hasBonus());
+        assertEquals(original.hasFine(), copy.hasFine());
+        assertEquals(original.getComments(), copy.getComments());
+        assertEquals(original.getEntries().size(), copy.getEntries().size());
+        for (int i = 0; i < original.getEntries().size(); i++) {
+            assertEquals(original.getEntries().get(i).toString(), copy.getEntries().get(i).toString());
+        }
+        assertTrue(new PerformanceHistoryStore(directory).load("E1").get(1).getEntries().isEmpty());
+    }
+
+    @Test
+    public void testIdsAreKeptApart() throws IOException {
+        PerformanceHistoryStore store = new PerformanceHistoryStore(directory);
+        store.append("e1", record("e1", 1));
+        store.append("E1", record("E1", 2));
+        store.append("E1", record("E1", 3));
+        store.append("../x", record("../x", 4));
+
+        assertEquals(1, store.load("e1").size());
+        assertEquals(2, store.load("E1").size());
+        assertEquals(1, store.load("../x").size());
+        assertEquals(0, store.count("missing"));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(3, files.count());
+        }
+    }
+}